@@ -1,18 +1,86 @@
+import data.DatasetManifest;
+import data.RosterArchive;
+import data.RosterWriter;
 import graph.EvolutionGraphBuilder;
 import graph.EvolutionVisualizer;
 import graph.GraphBuilder;
+import graph.RosterPipeline;
+import graph.TeamFolderWatcher;
 import model.Player;
+import model.TeamSeason;
+import model.TeamSeasonFilter;
+import scraper.DownloadJournal;
+import scraper.HttpClientTransport;
+import scraper.HttpPageCache;
+import scraper.OfflineReparser;
+import scraper.PageTransport;
 import scraper.PlayerScraper;
+import scraper.ScrapeScheduler;
+import scraper.ScraperMetrics;
+import scraper.TeamDataDownloader;
 import graph.GraphVisualizer;
+import org.jsoup.nodes.Document;
 
+import javax.swing.SwingUtilities;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
 
 public class FootBallTeamsGraphs {
     static final String outputFolderPath = "src/main/resources/teamsData";
 
+    // Writes the team-season CSV files (shared by all download threads, each write uses its own buffers)
+    private static final RosterWriter rosterWriter = new RosterWriter();
+    static final Path graphCachePath = Path.of("target", "evolution-graph.cache");
+    static final Path rosterArchivePath = Path.of("src/main/resources/teamsData.rosters");
+
+    // Download limits per host: requests in flight, and sustained request rate
+    static final int downloadConcurrencyPerHost = 4;
+    static final double downloadRequestsPerSecond = 2.0;
+
+    // Download order and time limit: the current season and the last recentSeasons seasons first,
+    // then team-seasons without a file, then refreshes of older seasons. No page starts after
+    // downloadTimeBudget (null for no limit); the rest is left to the next run.
+    static final int recentSeasons = 1;
+    static final Duration downloadTimeBudget = null;
+
+    // After Ctrl-C, the seconds a download gets to record the team-seasons it finished before the JVM exits
+    static final int shutdownGraceSeconds = 30;
+
+    // HTTP timeouts of the pooled download client: connection setup, and waiting for a response
+    static final Duration httpConnectTimeout = Duration.ofSeconds(10);
+    static final Duration httpRequestTimeout = Duration.ofSeconds(30);
+
+    // Download metrics (latency and parse time histograms, bytes, failures): printed every
+    // progressReportSeconds during a download, and saved as <path>.csv and <path>.json at the end
+    static final Path scraperMetricsPath = Path.of("target", "scraper-metrics");
+    static final int progressReportSeconds = 10;
+
+    // Rosters each pipeline stage (graph, CSV writer) may have waiting before downloads are held back
+    static final int pipelineQueueCapacity = 16;
+
+    // Raw HTML of downloaded pages; finished seasons are served from here without a request
+    static final Path httpCachePath = Path.of("cache", "http");
+
+    // Team-seasons finished by the current download job; kept until the job has run every
+    // team-season, so an interrupted job can resume. A job older than downloadJournalMaxAge
+    // is not resumed, and the current and recent seasons are always downloaded again.
+    static final Path downloadJournalPath = Path.of(outputFolderPath, "download.journal");
+    static final Duration downloadJournalMaxAge = Duration.ofDays(1);
+
+    // Saved pages to re-parse offline: a folder or zip of Team_Name_YYYY.html files.
+    // If it does not exist, the pages in the HTTP cache are re-parsed instead.
+    static final Path savedPagesPath = Path.of("cache", "pages.zip");
+
     /**
      * Main entry point for the Football Teams Evolution project.
      * This class automatically collects player data from Transfermarkt
@@ -23,8 +91,19 @@ public class FootBallTeamsGraphs {
     public static void main(String[] args) {
         // Configuration
         boolean downloadNewData = false;
+        // Apply downloaded rosters to the graph while they are saved, instead of loading the files afterwards
+        boolean streamDownloadsIntoGraph = false;
+        // Re-derive all CSV files from saved pages, without network access (e.g. after a parser change)
+        boolean reparseSavedPages = false;
         boolean showEvolution = true;
         boolean showStaticGraph = true;
+        boolean watchDataFolder = true;
+        // Also keep all rosters in one archive file and load from it (fewer file opens on slow storage)
+        boolean useRosterArchive = false;
+        int loadThreads = Runtime.getRuntime().availableProcessors();
+
+        // Team-seasons to analyze, e.g. TeamSeasonFilter.seasons(2010, 2020).withTeams("Bayern Munich")
+        TeamSeasonFilter loadFilter = TeamSeasonFilter.ALL;
 
         // Teams to analyze with their Transfermarkt URLs
         Map<String, String> teams = Map.of(
@@ -38,19 +117,48 @@ public class FootBallTeamsGraphs {
         int startSeason = 1999;
         int endSeason = 2025;
 
+        EvolutionGraphBuilder evolutionBuilder = new EvolutionGraphBuilder();
+
         // Download data if needed
         if (downloadNewData) {
             System.out.println("Downloading player data from Transfermarkt\n");
-            downloadAllTeamData(teams, startSeason, endSeason);
+            RosterPipeline pipeline = null;
+            if (streamDownloadsIntoGraph) {
+                pipeline = new RosterPipeline(evolutionBuilder, loadFilter, pipelineQueueCapacity, Runnable::run);
+                pipeline.addListener(teamSeason -> System.out.println("Graph updated with "
+                        + teamSeason.team() + " " + teamSeason.season() + ": "
+                        + evolutionBuilder.getPlayers().size() + " players, "
+                        + evolutionBuilder.getEdgeStore().edgeCount() + " co-play edges"));
+            }
+            downloadAllTeamData(teams, startSeason, endSeason, useRosterArchive, pipeline);
+        } else if (reparseSavedPages) {
+            System.out.println("Re-parsing saved pages\n");
+            reparseSavedPages(teams, startSeason, endSeason, useRosterArchive, loadThreads);
         } else {
             System.out.println("Using existing data (set downloadNewData=true to refresh)\n");
         }
 
-        // Build and analyze the evolution graph
+        // Build and analyze the evolution graph (after a streamed download, only the files not streamed are read)
         System.out.println("Building temporal co-play graph\n");
 
-        EvolutionGraphBuilder evolutionBuilder = new EvolutionGraphBuilder();
-        evolutionBuilder.loadFromFolder(outputFolderPath);
+        // The archive is only used while it matches the CSV files, so the folder watcher below
+        // keeps the graph in sync with the same data whichever source it was loaded from
+        boolean archiveCurrent = false;
+        if (useRosterArchive && Files.isRegularFile(rosterArchivePath)) {
+            try {
+                archiveCurrent = RosterArchive.isCurrent(rosterArchivePath, Path.of(outputFolderPath));
+            } catch (IOException e) {
+                System.err.println("Cannot read roster archive " + rosterArchivePath + ": " + e.getMessage());
+            }
+            if (!archiveCurrent) {
+                System.out.println("Roster archive " + rosterArchivePath + " does not match the CSV files, loading the folder\n");
+            }
+        }
+        if (archiveCurrent) {
+            evolutionBuilder.loadFromArchive(rosterArchivePath, loadFilter, loadThreads);
+        } else {
+            evolutionBuilder.loadFromFolder(outputFolderPath, loadFilter, loadThreads, graphCachePath);
+        }
 
         // Print evolution statistics
         evolutionBuilder.printEvolutionSummary();
@@ -63,6 +171,16 @@ public class FootBallTeamsGraphs {
             return;
         }
 
+        // Taken before the folder watcher starts: from then on the builder is changed on the EDT
+        // and must only be read there
+        if (showStaticGraph) {
+            System.out.println("Showing static full graph\n");
+            // Same dataset as the evolution views: the full graph is the last cumulative view
+            GraphBuilder staticBuilder = new GraphBuilder(evolutionBuilder);
+            staticBuilder.printSummary();
+            GraphVisualizer.showGraph(staticBuilder.getEdges());
+        }
+
         // Visualize
         if (showEvolution) {
             System.out.println("Launching interactive evolution visualizer:\n");
@@ -76,99 +194,383 @@ public class FootBallTeamsGraphs {
             System.out.println("  - Green: Players who joined this season");
             System.out.println("  - Red: Players who will leave after this season\n");
 
-            EvolutionVisualizer.visualize(evolutionBuilder);
-        }
+            EvolutionVisualizer visualizer = EvolutionVisualizer.visualize(evolutionBuilder);
 
-        if (showStaticGraph) {
-            System.out.println("Showing static full graph\n");
-            GraphBuilder staticBuilder = new GraphBuilder();
-            staticBuilder.loadAndBuildFromFolder(outputFolderPath);
-            staticBuilder.printSummary();
-            GraphVisualizer.showGraph(staticBuilder.getEdges());
+            // Live mode: apply added/changed/deleted CSV files and redraw, without a restart
+            if (watchDataFolder) {
+                TeamFolderWatcher watcher = new TeamFolderWatcher(
+                        evolutionBuilder, outputFolderPath, loadFilter, SwingUtilities::invokeLater);
+                watcher.addListener(visualizer::refresh);
+                try {
+                    watcher.start();
+                } catch (IOException e) {
+                    System.err.println("Cannot watch " + outputFolderPath + ": " + e.getMessage());
+                }
+            }
         }
     }
 
     //Download player data for each team and season
-    private static void downloadAllTeamData(Map<String, String> teams, int startSeason, int endSeason) {
+    // With a pipeline, every downloaded roster is streamed to the graph and the CSV writer as it arrives
+    private static void downloadAllTeamData(Map<String, String> teams, int startSeason, int endSeason,
+                                            boolean writeArchive, RosterPipeline pipeline) {
         // Ensure output directory exists
         new File(outputFolderPath).mkdirs();
 
-        for (Map.Entry<String, String> entry : teams.entrySet()) {
-            String teamName = entry.getKey();
-            String baseUrl = entry.getValue();
+        // Index of the downloaded files, read by the loaders instead of listing the folder
+        Path folder = Path.of(outputFolderPath);
+        DatasetManifest manifest = DatasetManifest.readOrScan(folder);
+
+        // Team-seasons finished by an earlier, interrupted run are not downloaded again
+        DownloadJournal journal;
+        try {
+            journal = DownloadJournal.open(downloadJournalPath, downloadJournalMaxAge);
+        } catch (IOException e) {
+            System.err.println("Cannot open download journal " + downloadJournalPath + ": " + e.getMessage());
+            return;
+        }
 
+        // One task per team and season, most valuable first (then team name, then season)
+        int currentSeason = HttpPageCache.currentSeason(LocalDate.now());
+        List<TeamDataDownloader.DownloadTask> allTasks = new ArrayList<>();
+        List<ScrapeScheduler.Job> jobs = new ArrayList<>();
+        for (String teamName : new TreeSet<>(teams.keySet())) {
+            String baseUrl = teams.get(teamName);
             for (int season = startSeason; season <= endSeason; season++) {
-                String fullUrl = baseUrl + season;
-                String teamSeasonKey = teamName + " " + season;
-                System.out.println("Downloading data for: " + teamSeasonKey);
+                TeamDataDownloader.DownloadTask task = new TeamDataDownloader.DownloadTask(teamName, season, baseUrl + season);
+                allTasks.add(task);
+                File csvFile = new File(outputFolderPath, teamName.replace(" ", "_") + "_" + season + ".csv");
+                ScrapeScheduler.Priority priority =
+                        ScrapeScheduler.priorityOf(season, currentSeason, recentSeasons, csvFile.isFile());
+                // Current and recent rosters may have changed since the interrupted run fetched them
+                boolean settled = priority != ScrapeScheduler.Priority.CURRENT_SEASON
+                        && priority != ScrapeScheduler.Priority.RECENT_SEASON;
+                if (settled && journal.isCompleted(teamName, season)) {
+                    // The interrupted run saved the file but not the manifest
+                    if (csvFile.isFile()) {
+                        recordInManifest(csvFile, manifest);
+                    }
+                } else {
+                    jobs.add(new ScrapeScheduler.Job(task, priority));
+                }
+            }
+        }
 
-                try {
-                    // Fetch and parse player data from Transfermarkt
-                    List<Player> players = PlayerScraper.parsePlayers(fullUrl);
+        if (jobs.size() < allTasks.size()) {
+            System.out.println("Resuming: " + (allTasks.size() - jobs.size()) + " team-seasons already downloaded");
+        }
+        System.out.println("Downloading " + jobs.size() + " team-season pages (up to "
+                + downloadConcurrencyPerHost + " at a time per host, " + downloadRequestsPerSecond + " requests/s"
+                + (downloadTimeBudget != null ? ", for at most " + downloadTimeBudget.toMinutes() + " min" : "") + ")\n");
+
+        if (pipeline != null) {
+            pipeline.addSink("roster-pipeline-csv", (teamSeason, players) -> {
+                String baseName = teamSeason.team().replace(" ", "_") + "_" + teamSeason.season();
+                if (!saveTeamSeason(baseName, players, manifest)) {
+                    // Keeps the roster out of the graph, which only holds what is on disk
+                    throw new IOException(baseName + ".csv not saved");
+                }
+                markCompleted(journal, teamSeason.team(), teamSeason.season());
+            });
+            pipeline.start();
+        }
 
-                    if (players.isEmpty()) {
-                        System.out.println("No data available for " + teamSeasonKey);
-                        continue;
+        // Latency, size and failure statistics of the run, reported while it is in progress
+        ScraperMetrics metrics = new ScraperMetrics();
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scraper-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(() -> System.out.println("Progress: " + metrics.snapshot().summary()),
+                progressReportSeconds, progressReportSeconds, TimeUnit.SECONDS);
+
+        // Fetch and parse player data from Transfermarkt concurrently; every page is saved as soon as it is ready.
+        // Ctrl-C cancels the run, then waits (up to shutdownGraceSeconds) until the finished team-seasons
+        // are recorded, so the next run resumes after them.
+        CountDownLatch stopped = new CountDownLatch(1);
+        Thread cancelOnShutdown = null;
+        boolean pipelineFinished = false;
+        try {
+            // One client for all requests, so connections are reused instead of set up per page
+            PageTransport transport = metrics.instrument(new HttpClientTransport(httpConnectTimeout, httpRequestTimeout));
+            HttpPageCache pageCache = new HttpPageCache(httpCachePath, transport);
+            TeamDataDownloader downloader = new TeamDataDownloader(task -> {
+                long start = System.nanoTime();
+                boolean finished = HttpPageCache.isFinishedSeason(task.season());
+                Document page = pageCache.fetch(task.url(), finished);
+                long loaded = System.nanoTime();
+                List<Player> players = PlayerScraper.parsePlayers(page);
+                metrics.recordPage(loaded - start, System.nanoTime() - loaded, players.size());
+                // Only a finished season's page that held a squad is kept without revalidation;
+                // an error or rate-limit page is requested again next time
+                if (finished && !players.isEmpty()) {
+                    try {
+                        pageCache.markFinal(task.url());
+                    } catch (IOException e) {
+                        System.err.println("Cannot update page cache entry for " + task.url() + ": " + e.getMessage());
                     }
+                }
+                return players;
+            }, downloadConcurrencyPerHost, downloadRequestsPerSecond, downloadConcurrencyPerHost);
+            downloader.setServedLocally(
+                    task -> pageCache.isServedLocally(task.url(), HttpPageCache.isFinishedSeason(task.season())));
+            ScrapeScheduler scheduler = new ScrapeScheduler(downloader, downloadConcurrencyPerHost);
+            for (ScrapeScheduler.Job job : jobs) {
+                scheduler.submit(job.task(), job.priority());
+            }
+            cancelOnShutdown = new Thread(() -> {
+                scheduler.cancel();
+                try {
+                    stopped.await(shutdownGraceSeconds, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "scraper-cancel");
+            Runtime.getRuntime().addShutdownHook(cancelOnShutdown);
 
-                    String fileName = teamName.replace(" ", "_") + "_" + season + ".csv";
-                    String fullPath = outputFolderPath + File.separator + fileName;
-                    saveToCSV(players, fullPath);
+            ScrapeScheduler.Outcome outcome = scheduler.run(downloadTimeBudget, result -> {
+                if (!result.isSuccess()) {
+                    metrics.recordFailure(result.error());
+                }
+                saveDownloadResult(result, manifest, journal, pipeline);
+            });
+            if (pipeline != null) {
+                // Before the manifest is written, so it lists every file the CSV stage saved
+                pipeline.finish();
+                pipelineFinished = true;
+            }
+
+            writeDatasetIndexes(folder, manifest, writeArchive);
 
-                    System.out.println("Saved: " + fileName + " (" + players.size() + " players)\n");
-                } catch (Exception e) {
-                    System.err.println("Error while downloading data for " + teamSeasonKey + ": " + e.getMessage());
+            int notStarted = outcome.notStarted().size();
+            if (notStarted == 0 && !outcome.cancelled()) {
+                // The job is over, even if some team-seasons failed: the next run is a new job that retries them
+                try {
+                    journal.delete();
+                } catch (IOException e) {
+                    System.err.println("Cannot delete download journal " + downloadJournalPath + ": " + e.getMessage());
+                }
+            } else {
+                closeJournal(journal);
+            }
+
+            // Team-seasons that ran but were not saved (an interrupted job counts as failed too)
+            long failed = outcome.results().stream()
+                    .filter(result -> !result.isSuccess() || !journal.isCompleted(result.task().team(), result.task().season()))
+                    .count();
+            if (failed == 0 && notStarted == 0) {
+                System.out.println("\nData download complete.\n");
+            } else {
+                String reason = outcome.cancelled() ? "download cancelled" : "time budget used up";
+                System.out.println("\nData download incomplete: " + failed + " team-seasons failed"
+                        + (notStarted > 0 ? ", " + notStarted + " not started (" + reason + ", first: "
+                        + outcome.notStarted().get(0).priority() + ")" : "")
+                        + ", run again to retry them.\n");
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot open page cache " + httpCachePath + ": " + e.getMessage());
+            closeJournal(journal);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Download interrupted");
+            closeJournal(journal);
+        } finally {
+            if (pipeline != null && !pipelineFinished) {
+                // Failed or interrupted download: still let the stages drain what was handed to them
+                finishPipeline(pipeline);
+            }
+            progress.shutdownNow();
+            writeScraperMetrics(metrics);
+            stopped.countDown();
+            if (cancelOnShutdown != null) {
+                try {
+                    Runtime.getRuntime().removeShutdownHook(cancelOnShutdown);
+                } catch (IllegalStateException e) {
+                    // Already shutting down: the hook is running
                 }
             }
         }
+    }
 
-        System.out.println("\nData download complete.\n");
+    // Save one downloaded team-season (or hand it to the pipeline) and record it in the journal once its file is in place
+    private static void saveDownloadResult(TeamDataDownloader.DownloadResult result, DatasetManifest manifest,
+                                           DownloadJournal journal, RosterPipeline pipeline) {
+        String teamName = result.task().team();
+        int season = result.task().season();
+        String teamSeasonKey = teamName + " " + season;
+
+        if (!result.isSuccess()) {
+            System.err.println("Error while downloading data for " + teamSeasonKey + ": " + result.error().getMessage());
+            return;
+        }
+        List<Player> players = result.players();
+        if (players.isEmpty()) {
+            System.out.println("No data available for " + teamSeasonKey);
+        } else if (pipeline != null) {
+            // Waits while the graph or the CSV writer is behind; the CSV writer updates the journal
+            try {
+                pipeline.submit(new TeamSeason(teamName, season), players);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        } else if (!saveTeamSeason(teamName.replace(" ", "_") + "_" + season, players, manifest)) {
+            return;
+        }
+
+        markCompleted(journal, teamName, season);
     }
 
-    /**
-     * Saves a list of players to a CSV file.
-     *
-     * @param players  list of {@link Player} objects to save
-     * @param fileName name of the output CSV file
-     */
-    private static void saveToCSV(List<Player> players, String fileName) {
-        try (FileWriter writer = new FileWriter(fileName)) {
-            // CSV header
-            writer.append("Number,Name,Position,DateOfBirth,Age,Nationality,CurrentClub,Height,Foot,Joined,SignedFrom,MarketValue\n");
-
-            // CSV rows
-            for (Player p : players) {
-                writer.append(p.getNumber() + ",")
-                        .append(escapeCSV(p.getName()) + ",")
-                        .append(escapeCSV(p.getPosition()) + ",")
-                        .append(escapeCSV(p.getDateOfBirth()) + ",")
-                        .append(p.getAge() + ",")
-                        .append(escapeCSV(p.getNationality()) + ",")
-                        .append(escapeCSV(p.getCurrentClub()) + ",")
-                        .append(escapeCSV(p.getHeight()) + ",")
-                        .append(escapeCSV(p.getFoot()) + ",")
-                        .append(escapeCSV(p.getJoined()) + ",")
-                        .append(escapeCSV(p.getSignedFrom()) + ",")
-                        .append(escapeCSV(p.getMarketValue()))
-                        .append("\n");
+    // Final metrics of a download run: printed, and saved as CSV and JSON
+    private static void writeScraperMetrics(ScraperMetrics metrics) {
+        ScraperMetrics.Snapshot snapshot = metrics.snapshot();
+        System.out.println("Scraper metrics: " + snapshot.summary());
+        try {
+            snapshot.write(scraperMetricsPath);
+            System.out.println("Saved scraper metrics: " + scraperMetricsPath + ".csv / .json");
+        } catch (IOException e) {
+            System.err.println("Error while writing scraper metrics: " + e.getMessage());
+        }
+    }
+
+    // Waits for the pipeline stages even if this thread was interrupted, then restores the interrupt
+    private static void finishPipeline(RosterPipeline pipeline) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            pipeline.finish();
+        } catch (InterruptedException e) {
+            interrupted = true;
+            System.err.println("Interrupted while waiting for the roster pipeline");
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
             }
+        }
+    }
+
+    private static void markCompleted(DownloadJournal journal, String teamName, int season) {
+        try {
+            journal.markCompleted(teamName, season);
         } catch (IOException e) {
-            System.err.println("Error while saving data to CSV: " + e.getMessage());
+            System.err.println("Error while writing the download journal: " + e.getMessage());
         }
     }
 
-    /**
-     * Escapes text values for safe CSV writing.
-     * Adds quotes around values containing commas or quotes.
-     *
-     * @param value the text to escape
-     * @return properly escaped CSV-safe string
-     */
-    private static String escapeCSV(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"")) {
-            value = "\"" + value.replace("\"", "\"\"") + "\"";
+    private static void closeJournal(DownloadJournal journal) {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Error while closing the download journal: " + e.getMessage());
+        }
+    }
+
+    // Re-parse saved pages on a thread pool and rewrite the CSV files from them
+    private static void reparseSavedPages(Map<String, String> teams, int startSeason, int endSeason,
+                                          boolean writeArchive, int threads) {
+        new File(outputFolderPath).mkdirs();
+        Path folder = Path.of(outputFolderPath);
+        DatasetManifest manifest = DatasetManifest.readOrScan(folder);
+
+        List<OfflineReparser.ParsedPage> results;
+        try {
+            if (Files.isDirectory(savedPagesPath)) {
+                results = OfflineReparser.parseAll(OfflineReparser.listFolder(savedPagesPath.toFile()), threads);
+            } else if (Files.isRegularFile(savedPagesPath)) {
+                try (ZipFile zip = new ZipFile(savedPagesPath.toFile())) {
+                    results = OfflineReparser.parseAll(OfflineReparser.listZip(zip), threads);
+                }
+            } else {
+                // Same team-seasons as a download, read from the HTTP cache
+                HttpPageCache pageCache = new HttpPageCache(httpCachePath);
+                List<OfflineReparser.SavedPage> pages = new ArrayList<>();
+                for (String teamName : new TreeSet<>(teams.keySet())) {
+                    for (int season = startSeason; season <= endSeason; season++) {
+                        String url = teams.get(teamName) + season;
+                        pages.add(new OfflineReparser.SavedPage(teamName.replace(" ", "_") + "_" + season,
+                                () -> pageCache.loadCached(url)));
+                    }
+                }
+                results = OfflineReparser.parseAll(pages, threads);
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot read saved pages: " + e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Re-parsing interrupted");
+            return;
+        }
+
+        // All CSV files are written first and renamed into place together; a file that cannot be
+        // written is reported by the writer and does not hold back the others
+        Map<Path, OfflineReparser.ParsedPage> parsedPages = new HashMap<>();
+        for (OfflineReparser.ParsedPage result : results) {
+            if (!result.isSuccess()) {
+                System.err.println("Error while parsing " + result.name() + ": " + result.error().getMessage());
+            } else if (result.players().isEmpty()) {
+                System.out.println("No players found in " + result.name());
+            } else {
+                Path csvFile = new File(outputFolderPath, result.name() + ".csv").toPath();
+                rosterWriter.add(csvFile, result.players());
+                parsedPages.put(csvFile, result);
+            }
+        }
+        for (Path csvFile : rosterWriter.flush()) {
+            OfflineReparser.ParsedPage page = parsedPages.get(csvFile);
+            recordInManifest(csvFile.toFile(), manifest);
+            System.out.println("Saved: " + page.name() + ".csv (" + page.players().size() + " players)");
+        }
+
+        writeDatasetIndexes(folder, manifest, writeArchive);
+        System.out.println("\nRe-parsing complete.\n");
+    }
+
+    // Write one team-season CSV file (e.g. "Bayern_Munich_2020") and record it in the manifest
+    private static boolean saveTeamSeason(String baseName, List<Player> players, DatasetManifest manifest) {
+        String fileName = baseName + ".csv";
+        File csvFile = new File(outputFolderPath, fileName);
+        try {
+            rosterWriter.write(csvFile.toPath(), players);
+        } catch (IOException e) {
+            System.err.println("Error while saving " + fileName + ": " + e.getMessage());
+            return false;
+        }
+        recordInManifest(csvFile, manifest);
+
+        System.out.println("Saved: " + fileName + " (" + players.size() + " players)");
+        return true;
+    }
+
+    // Downloads save from several threads at once, so manifest updates are synchronized
+    private static void recordInManifest(File csvFile, DatasetManifest manifest) {
+        try {
+            DatasetManifest.Entry manifestEntry = DatasetManifest.describe(csvFile);
+            if (manifestEntry != null) {
+                synchronized (manifest) {
+                    manifest.put(manifestEntry);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error while reading " + csvFile.getName() + ": " + e.getMessage());
+        }
+    }
+
+    // Write the manifest and, if requested, the roster archive after the CSV files changed
+    private static void writeDatasetIndexes(Path folder, DatasetManifest manifest, boolean writeArchive) {
+        try {
+            manifest.write(folder);
+        } catch (IOException e) {
+            System.err.println("Error while writing the dataset manifest: " + e.getMessage());
+        }
+
+        if (writeArchive) {
+            try {
+                RosterArchive.write(rosterArchivePath, folder, manifest);
+                System.out.println("Saved roster archive: " + rosterArchivePath);
+            } catch (IOException e) {
+                System.err.println("Error while writing the roster archive: " + e.getMessage());
+            }
         }
-        return value;
     }
 }
@@ -0,0 +1,269 @@
+package data;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming CSV tokenizer that reads records into one reusable char buffer.
+ * <p>
+ * Fields are kept as slices (start and end offsets) of that buffer; a String is only
+ * created when the caller asks for a field with {@link #field(int)}. Checks such as
+ * {@link #fieldEquals(int, String)} or {@link #fieldAsInt(int, int)} work on the slice directly.
+ * <p>
+ * Quoting follows RFC 4180, as written by RosterWriter: a field may be
+ * wrapped in double quotes, commas and line breaks inside quotes are literal, and a doubled
+ * quote inside quotes is one literal quote. Fields are trimmed of surrounding whitespace.
+ */
+public class CsvTokenizer implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private char[] buffer;
+    private int limit;
+    private boolean eof;
+
+    // Start of the next unread record
+    private int position;
+
+    // Current record: field i is buffer[fieldStart[i] .. fieldEnd[i]), trimmed, quotes included
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private boolean[] fieldQuoted = new boolean[16];
+    private int fieldCount;
+
+    /**
+     * Tokenizes characters from a reader. The tokenizer does its own buffering.
+     */
+    public CsvTokenizer(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Tokenizes UTF-8 bytes from a stream.
+     */
+    public CsvTokenizer(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tokenizes characters already in memory. The array is used as the buffer, without copying.
+     */
+    public CsvTokenizer(char[] data, int length) {
+        this.reader = null;
+        this.buffer = data;
+        this.limit = length;
+        this.eof = true;
+    }
+
+    /**
+     * Advances to the next record.
+     *
+     * @return false when the input is exhausted
+     */
+    public boolean nextRecord() throws IOException {
+        while (true) {
+            if (position >= limit && eof) {
+                fieldCount = 0;
+                return false;
+            }
+            int end = scanRecord(position);
+            if (end >= 0) {
+                position = end;
+                return true;
+            }
+            // The record runs past the buffered data: keep it, read more and scan it again
+            if (!fill()) {
+                if (position >= limit) {
+                    fieldCount = 0;
+                    return false;
+                }
+                position = scanRecordAtEof(position);
+                return true;
+            }
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return field i as a String, without surrounding quotes; "" if the record has no such field
+     */
+    public String field(int i) {
+        if (i >= fieldCount) return "";
+        int start = fieldStart[i];
+        int end = fieldEnd[i];
+        if (!fieldQuoted[i]) {
+            return new String(buffer, start, end - start);
+        }
+        return unquote(start, end);
+    }
+
+    public boolean fieldIsEmpty(int i) {
+        return i >= fieldCount || fieldEnd[i] == fieldStart[i]
+                || (fieldQuoted[i] && field(i).isEmpty());
+    }
+
+    /**
+     * Compares field i with a value without creating a String (for unquoted fields).
+     */
+    public boolean fieldEquals(int i, String value) {
+        if (i >= fieldCount) return value.isEmpty();
+        if (fieldQuoted[i]) return field(i).equals(value);
+        int start = fieldStart[i];
+        int length = fieldEnd[i] - start;
+        if (length != value.length()) return false;
+        for (int k = 0; k < length; k++) {
+            if (buffer[start + k] != value.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads field i as an integer, ignoring any characters that are not digits
+     * (e.g. "(25)" is 25) and accepting a leading minus sign.
+     *
+     * @return the value, or defaultValue if the field has no digits or does not fit in an int
+     */
+    public int fieldAsInt(int i, int defaultValue) {
+        if (i >= fieldCount) return defaultValue;
+        long value = 0;
+        boolean negative = false;
+        boolean digits = false;
+        for (int k = fieldStart[i]; k < fieldEnd[i]; k++) {
+            char c = buffer[k];
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE) return defaultValue;
+                digits = true;
+            } else if (c == '-') {
+                if (digits || negative) return defaultValue;
+                negative = true;
+            }
+        }
+        if (!digits) return defaultValue;
+        return (int) (negative ? -value : value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    /*
+     * Splits the record starting at 'from' into field slices.
+     * Returns the start of the following record, or -1 if the record is not complete in the buffer.
+     */
+    private int scanRecord(int from) {
+        fieldCount = 0;
+        int fieldBegin = from;
+        boolean inQuotes = false;
+        boolean quoted = false;
+
+        for (int i = from; i < limit; i++) {
+            char c = buffer[i];
+            if (c == '"') {
+                inQuotes = !inQuotes;
+                quoted = true;
+            } else if (!inQuotes && c == ',') {
+                addField(fieldBegin, i, quoted);
+                fieldBegin = i + 1;
+                quoted = false;
+            } else if (!inQuotes && c == '\n') {
+                addField(fieldBegin, i, quoted);
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    // Last record of the input, not terminated by a line break
+    private int scanRecordAtEof(int from) {
+        fieldCount = 0;
+        int fieldBegin = from;
+        boolean inQuotes = false;
+        boolean quoted = false;
+
+        for (int i = from; i < limit; i++) {
+            char c = buffer[i];
+            if (c == '"') {
+                inQuotes = !inQuotes;
+                quoted = true;
+            } else if (!inQuotes && c == ',') {
+                addField(fieldBegin, i, quoted);
+                fieldBegin = i + 1;
+                quoted = false;
+            }
+        }
+        addField(fieldBegin, limit, quoted);
+        return limit;
+    }
+
+    private void addField(int start, int end, boolean quoted) {
+        while (start < end && buffer[start] <= ' ') start++;
+        while (end > start && buffer[end - 1] <= ' ') end--;
+
+        if (fieldCount == fieldStart.length) {
+            int capacity = fieldCount * 2;
+            fieldStart = Arrays.copyOf(fieldStart, capacity);
+            fieldEnd = Arrays.copyOf(fieldEnd, capacity);
+            fieldQuoted = Arrays.copyOf(fieldQuoted, capacity);
+        }
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = end;
+        fieldQuoted[fieldCount] = quoted;
+        fieldCount++;
+    }
+
+    // Removes the quoting of a raw field slice; "" inside quotes becomes a single quote
+    private String unquote(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        boolean inQuotes = false;
+        for (int i = start; i < end; i++) {
+            char c = buffer[i];
+            if (c == '"') {
+                if (inQuotes && i + 1 < end && buffer[i + 1] == '"') {
+                    sb.append('"');
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    /*
+     * Moves the unread part to the front of the buffer (growing it if a single record
+     * fills it) and reads more characters. Returns false at end of input.
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        int remaining = limit - position;
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+            position = 0;
+            limit = remaining;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+}
@@ -0,0 +1,274 @@
+package data;
+
+import model.TeamSeason;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Index of the team-season CSV files of a data folder: team, season, file name,
+ * number of player rows, a CRC32 checksum of the file content, and the file size and
+ * last-modified time the entry was made from.
+ * <p>
+ * The download step keeps the manifest up to date, and loaders read it first, so a load
+ * can be planned (filtered, scheduled) from the manifest instead of reading every file.
+ * Files can also change behind the manifest's back (copied in by hand, edited, deleted),
+ * so loaders {@link #synchronize} it with the folder listing first: only entries whose file
+ * still has the recorded size and modification time are trusted.
+ * <p>
+ * The manifest is stored in the data folder as {@value #FILE_NAME}, a CSV file with the header
+ * {@code Team,Season,File,Rows,Checksum,Size,Modified}. It does not end in ".csv", so it is
+ * never mistaken for a team-season file.
+ */
+public class DatasetManifest {
+
+    public static final String FILE_NAME = "teams.manifest";
+
+    private static final String HEADER = "Team,Season,File,Rows,Checksum,Size,Modified";
+
+    // Team-season file names such as "Bayern_Munich_2020" (without ".csv")
+    private static final Pattern TEAM_SEASON_NAME = Pattern.compile("(.+)_(\\d{4})$");
+
+    /**
+     * One team-season file.
+     *
+     * @param rows         number of player rows (header excluded)
+     * @param checksum     CRC32 of the file bytes
+     * @param size         file length in bytes, -1 if unknown
+     * @param lastModified file modification time in milliseconds, -1 if unknown
+     */
+    public record Entry(TeamSeason teamSeason, String fileName, int rows, long checksum,
+                        long size, long lastModified) {
+
+        // Entry without file attributes, e.g. from an archive's table of contents
+        public Entry(TeamSeason teamSeason, String fileName, int rows, long checksum) {
+            this(teamSeason, fileName, rows, checksum, -1, -1);
+        }
+
+        /**
+         * @return true if the file still has the size and modification time the entry was made from
+         */
+        public boolean matches(File file) {
+            return size >= 0 && size == file.length() && lastModified == file.lastModified();
+        }
+    }
+
+    // File name -> entry, sorted by file name (the load order)
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    /**
+     * Reads the manifest of a data folder.
+     *
+     * @return the manifest, or null if the folder has none or it cannot be read
+     */
+    public static DatasetManifest read(Path folder) {
+        Path file = folder.resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        DatasetManifest manifest = new DatasetManifest();
+        try (CsvTokenizer csv = new CsvTokenizer(Files.newInputStream(file))) {
+            // Skip header
+            csv.nextRecord();
+
+            while (csv.nextRecord()) {
+                if (csv.fieldCount() < 5) continue;
+                TeamSeason teamSeason = new TeamSeason(csv.field(0), csv.fieldAsInt(1, -1));
+                // Manifests written before the file attributes were added have 5 fields: never trusted
+                long size = csv.fieldCount() >= 7 ? Long.parseLong(csv.field(5)) : -1;
+                long lastModified = csv.fieldCount() >= 7 ? Long.parseLong(csv.field(6)) : -1;
+                manifest.put(new Entry(teamSeason, csv.field(2), csv.fieldAsInt(3, -1),
+                        Long.parseLong(csv.field(4), 16), size, lastModified));
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error reading manifest " + file + ": " + e.getMessage());
+            return null;
+        }
+        return manifest;
+    }
+
+    /**
+     * Reads the manifest of a data folder and {@link #synchronize synchronizes} it with the
+     * files in the folder, writing it back if it changed.
+     *
+     * @return the up-to-date manifest, or null if the folder has none or it cannot be read
+     */
+    public static DatasetManifest readSynchronized(Path folder) {
+        DatasetManifest manifest = read(folder);
+        if (manifest == null) {
+            return null;
+        }
+
+        int changed = manifest.synchronize(folder);
+        if (changed > 0) {
+            System.out.println("Manifest updated: " + changed + " team-season files added, changed or removed");
+            try {
+                manifest.write(folder);
+            } catch (IOException e) {
+                System.err.println("Error writing manifest " + folder.resolve(FILE_NAME) + ": " + e.getMessage());
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Reads the manifest of a data folder, or builds one by describing every team-season
+     * CSV file in it if the folder has no manifest yet. An existing manifest is
+     * {@link #synchronize synchronized} with the folder (but not written).
+     */
+    public static DatasetManifest readOrScan(Path folder) {
+        DatasetManifest manifest = read(folder);
+        if (manifest == null) {
+            manifest = new DatasetManifest();
+        }
+        manifest.synchronize(folder);
+        return manifest;
+    }
+
+    /**
+     * Compares the entries with the team-season CSV files now in the folder. Entries whose
+     * file still has the recorded size and modification time are kept as they are; files that
+     * are new or changed are described again (rows and checksum), and entries whose file is
+     * gone are removed.
+     *
+     * @return number of entries added, replaced or removed
+     */
+    public int synchronize(Path folder) {
+        File[] files = folder.toFile().listFiles((dir, name) -> name.endsWith(".csv"));
+        if (files == null) {
+            files = new File[0];
+        }
+
+        int changed = 0;
+        Set<String> present = new HashSet<>();
+        for (File file : files) {
+            present.add(file.getName());
+            Entry entry = entries.get(file.getName());
+            if (entry != null && entry.matches(file)) {
+                continue;
+            }
+            try {
+                Entry described = describe(file);
+                if (described != null) {
+                    entries.put(described.fileName(), described);
+                    changed++;
+                } else if (entries.remove(file.getName()) != null) {
+                    changed++;
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading " + file.getName() + ": " + e.getMessage());
+                if (entries.remove(file.getName()) != null) {
+                    changed++;
+                }
+            }
+        }
+
+        Iterator<String> names = entries.keySet().iterator();
+        while (names.hasNext()) {
+            if (!present.contains(names.next())) {
+                names.remove();
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Reads a team-season CSV file once to count its rows and compute its checksum.
+     *
+     * @return the entry, or null if the file name does not name a team-season
+     */
+    public static Entry describe(File csvFile) throws IOException {
+        TeamSeason teamSeason = parseFileName(csvFile.getName());
+        if (teamSeason == null) {
+            return null;
+        }
+
+        // Attributes taken before reading, so a write during the read makes the entry look stale
+        long size = csvFile.length();
+        long lastModified = csvFile.lastModified();
+        CRC32 crc = new CRC32();
+        int rows = 0;
+        try (CsvTokenizer csv = new CsvTokenizer(new CheckedInputStream(new FileInputStream(csvFile), crc))) {
+            // Skip header
+            csv.nextRecord();
+
+            while (csv.nextRecord()) {
+                if (csv.fieldCount() >= 2 && !csv.fieldIsEmpty(1)) {
+                    rows++;
+                }
+            }
+        }
+        return new Entry(teamSeason, csvFile.getName(), rows, crc.getValue(), size, lastModified);
+    }
+
+    /**
+     * Extracts team name and season from a file name (e.g., "Bayern_Munich_2020.csv").
+     *
+     * @return the team-season, or null if the name does not match
+     */
+    public static TeamSeason parseFileName(String fileName) {
+        Matcher matcher = TEAM_SEASON_NAME.matcher(fileName.replace(".csv", ""));
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new TeamSeason(matcher.group(1).replace("_", " "), Integer.parseInt(matcher.group(2)));
+    }
+
+    public void put(Entry entry) {
+        entries.put(entry.fileName(), entry);
+    }
+
+    public Entry get(String fileName) {
+        return entries.get(fileName);
+    }
+
+    public Entry remove(String fileName) {
+        return entries.remove(fileName);
+    }
+
+    // All entries, sorted by file name
+    public Collection<Entry> entries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the manifest into a data folder, replacing the previous one atomically.
+     */
+    public void write(Path folder) throws IOException {
+        Path file = folder.resolve(FILE_NAME);
+        Path tempFile = folder.resolve(FILE_NAME + ".tmp");
+
+        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.write('\n');
+            for (Entry entry : entries.values()) {
+                writer.write(escape(entry.teamSeason().team()) + "," + entry.teamSeason().season() + ","
+                        + escape(entry.fileName()) + "," + entry.rows() + ","
+                        + Long.toHexString(entry.checksum()) + "," + entry.size() + ","
+                        + entry.lastModified() + "\n");
+            }
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String escape(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,197 @@
+package data;
+
+import model.TeamSeason;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Single-file container for all team-season rosters, as an alternative to one CSV file
+ * per team-season.
+ * <p>
+ * Layout (big-endian, as written by {@link DataOutputStream}):
+ * <pre>
+ * magic "FGRA", version
+ * entry count
+ * table of contents: per entry team, season, file name, rows, checksum, compressed length
+ * data: per entry, the gzip-compressed bytes of the original CSV file, in table order
+ * </pre>
+ * Each roster is compressed on its own, so a reader can skip the rosters it does not need
+ * without decompressing them. The whole archive is read in one sequential pass, instead of
+ * one file open per team-season.
+ */
+public class RosterArchive {
+
+    private static final int MAGIC = 0x46475241; // "FGRA"
+    private static final int VERSION = 1;
+
+    /**
+     * One roster read from an archive: its table entry and the compressed CSV bytes.
+     */
+    public record Roster(DatasetManifest.Entry entry, byte[] compressedCsv) {
+
+        // The original CSV content
+        public InputStream open() throws IOException {
+            return new GZIPInputStream(new ByteArrayInputStream(compressedCsv));
+        }
+    }
+
+    private RosterArchive() {
+    }
+
+    /**
+     * Packs the CSV files listed in a manifest into one archive file (written to a temporary
+     * file first, then renamed into place).
+     *
+     * @param archiveFile archive to write
+     * @param folder      data folder with the CSV files
+     * @param manifest    files to include, in manifest order
+     */
+    public static void write(Path archiveFile, Path folder, DatasetManifest manifest) throws IOException {
+        List<DatasetManifest.Entry> entries = new ArrayList<>(manifest.entries());
+        List<byte[]> blobs = new ArrayList<>(entries.size());
+        for (DatasetManifest.Entry entry : entries) {
+            blobs.add(compress(Files.readAllBytes(folder.resolve(entry.fileName()))));
+        }
+
+        Path tempFile = archiveFile.resolveSibling(archiveFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(tempFile), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                DatasetManifest.Entry entry = entries.get(i);
+                writeString(out, entry.teamSeason().team());
+                out.writeInt(entry.teamSeason().season());
+                writeString(out, entry.fileName());
+                out.writeInt(entry.rows());
+                out.writeLong(entry.checksum());
+                out.writeInt(blobs.get(i).length);
+            }
+            for (byte[] blob : blobs) {
+                out.write(blob);
+            }
+        }
+        Files.move(tempFile, archiveFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the table of contents only.
+     */
+    public static List<DatasetManifest.Entry> readTableOfContents(Path archiveFile) throws IOException {
+        try (DataInputStream in = openArchive(archiveFile)) {
+            List<DatasetManifest.Entry> entries = new ArrayList<>();
+            readTableOfContents(in, entries, new ArrayList<>());
+            return entries;
+        }
+    }
+
+    /**
+     * Streams through the archive and hands the selected rosters to the consumer one at a time,
+     * in archive order, so the reader holds only one compressed roster at once. Rosters that
+     * are not selected are skipped without being decompressed.
+     *
+     * @param archiveFile archive to read
+     * @param selector    which team-seasons to pass on
+     * @param consumer    called on the reading thread for every selected roster
+     */
+    public static void forEach(Path archiveFile, Predicate<TeamSeason> selector, Consumer<Roster> consumer)
+            throws IOException {
+        try (DataInputStream in = openArchive(archiveFile)) {
+            List<DatasetManifest.Entry> entries = new ArrayList<>();
+            List<Integer> lengths = new ArrayList<>();
+            readTableOfContents(in, entries, lengths);
+
+            for (int i = 0; i < entries.size(); i++) {
+                int length = lengths.get(i);
+                if (selector.test(entries.get(i).teamSeason())) {
+                    byte[] blob = new byte[length];
+                    in.readFully(blob);
+                    consumer.accept(new Roster(entries.get(i), blob));
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that the archive still holds the team-season files of a data folder as they are
+     * now: the same file names with the same checksums as the folder's manifest, after the
+     * manifest was {@link DatasetManifest#synchronize synchronized} with the folder. CSV files
+     * added, edited or deleted after the archive was written make it stale.
+     *
+     * @return false if the archive is stale, or the folder has no manifest to compare with
+     */
+    public static boolean isCurrent(Path archiveFile, Path folder) throws IOException {
+        DatasetManifest manifest = DatasetManifest.readSynchronized(folder);
+        if (manifest == null) {
+            return false;
+        }
+
+        List<DatasetManifest.Entry> archived = readTableOfContents(archiveFile);
+        if (archived.size() != manifest.size()) {
+            return false;
+        }
+        for (DatasetManifest.Entry entry : archived) {
+            DatasetManifest.Entry current = manifest.get(entry.fileName());
+            if (current == null || current.checksum() != entry.checksum()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static DataInputStream openArchive(Path archiveFile) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(archiveFile), 1 << 16));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            in.close();
+            throw new IOException("not a roster archive (or unsupported version): " + archiveFile);
+        }
+        return in;
+    }
+
+    private static void readTableOfContents(DataInputStream in, List<DatasetManifest.Entry> entries,
+                                            List<Integer> lengths) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String team = readString(in);
+            int season = in.readInt();
+            String fileName = readString(in);
+            int rows = in.readInt();
+            long checksum = in.readLong();
+            entries.add(new DatasetManifest.Entry(new TeamSeason(team, season), fileName, rows, checksum));
+            lengths.add(in.readInt());
+        }
+    }
+
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,314 @@
+package data;
+
+import model.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Writes team-season rosters as UTF-8 CSV files, in the format read by {@link CsvTokenizer}.
+ * <p>
+ * Rows are encoded field by field into a reusable char buffer and UTF-8 encoder, and written
+ * to a FileChannel in 64 KB blocks, so writing a roster creates no per-row or per-field strings.
+ * Each file is written under a temporary name ({@code <name>.csv.tmp}), forced to disk and
+ * renamed into place, and the rename is synced with its folder before a write returns, so
+ * neither readers nor a crash ever see a half-written file.
+ * <p>
+ * Rosters can be written one at a time with {@link #write}, or collected with {@link #add} and
+ * written together by {@link #flush()}, which renames the files only once all of them are written.
+ * Safe to share between threads: concurrent writes each take their own buffers from a pool,
+ * so download threads do not wait for each other.
+ */
+public class RosterWriter {
+
+    public static final String HEADER =
+            "Number,Name,Position,DateOfBirth,Age,Nationality,CurrentClub,Height,Foot,Joined,SignedFrom,MarketValue";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Buffers of finished writes, reused by the next ones; at most one per concurrent write is ever created
+    private final Queue<FileEncoder> encoders = new ConcurrentLinkedQueue<>();
+
+    // Rosters added since the last flush
+    private final List<Path> pendingFiles = new ArrayList<>();
+    private final List<List<Player>> pendingRosters = new ArrayList<>();
+
+    /**
+     * Writes one roster file (temporary file, then rename).
+     *
+     * @param csvFile output CSV file
+     * @param players players of the roster, in row order
+     */
+    public void write(Path csvFile, List<Player> players) throws IOException {
+        Path tempFile = tempFileOf(csvFile);
+        writeFile(tempFile, players);
+        Files.move(tempFile, csvFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceFolder(csvFile.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Queues a roster for the next {@link #flush()}. The list must not change until then.
+     */
+    public synchronized void add(Path csvFile, List<Player> players) {
+        pendingFiles.add(csvFile);
+        pendingRosters.add(players);
+    }
+
+    /**
+     * @return number of rosters queued for the next flush
+     */
+    public synchronized int pending() {
+        return pendingFiles.size();
+    }
+
+    /**
+     * Writes all queued rosters to temporary files, then renames them into place. A file that
+     * cannot be written is reported and left out; the others are still renamed.
+     *
+     * @return the files written, in the order they were added
+     */
+    public List<Path> flush() {
+        List<Path> files;
+        List<List<Player>> rosters;
+        synchronized (this) {
+            files = new ArrayList<>(pendingFiles);
+            rosters = new ArrayList<>(pendingRosters);
+            pendingFiles.clear();
+            pendingRosters.clear();
+        }
+
+        List<Path> written = new ArrayList<>(files.size());
+        List<Path> tempFiles = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            Path tempFile = tempFileOf(files.get(i));
+            try {
+                writeFile(tempFile, rosters.get(i));
+                written.add(files.get(i));
+                tempFiles.add(tempFile);
+            } catch (IOException e) {
+                System.err.println("Error while saving " + files.get(i).getFileName() + ": " + e.getMessage());
+            }
+        }
+
+        List<Path> renamed = new ArrayList<>(written.size());
+        for (int i = 0; i < written.size(); i++) {
+            try {
+                Files.move(tempFiles.get(i), written.get(i), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                renamed.add(written.get(i));
+            } catch (IOException e) {
+                System.err.println("Error while saving " + written.get(i).getFileName() + ": " + e.getMessage());
+            }
+        }
+        // One directory sync per folder for the whole batch
+        Set<Path> folders = new LinkedHashSet<>();
+        for (Path file : renamed) {
+            folders.add(file.toAbsolutePath().getParent());
+        }
+        for (Path folder : folders) {
+            forceFolder(folder);
+        }
+        return renamed;
+    }
+
+    private static Path tempFileOf(Path csvFile) {
+        return csvFile.resolveSibling(csvFile.getFileName() + ".tmp");
+    }
+
+    /*
+     * Makes the renames in a folder durable, so the manifest and the download journal, which are
+     * updated once a write returns, never point at a file a crash could still take back. Not every
+     * platform can open a directory (Windows cannot); there the rename is left to the OS.
+     */
+    private static void forceFolder(Path folder) {
+        try (FileChannel directory = FileChannel.open(folder, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Directory sync not supported
+        }
+    }
+
+    private void writeFile(Path file, List<Player> players) throws IOException {
+        FileEncoder encoder = encoders.poll();
+        if (encoder == null) {
+            encoder = new FileEncoder();
+        }
+        try {
+            encoder.writeFile(file, players);
+        } finally {
+            encoders.add(encoder);
+        }
+    }
+
+    // Encoding buffers and the file being written, used by one write at a time
+    private static final class FileEncoder {
+
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE * 2);
+
+        // File being written
+        private FileChannel channel;
+
+        private void writeFile(Path file, List<Player> players) throws IOException {
+            try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel = fileChannel;
+                encoder.reset();
+                chars.clear();
+                bytes.clear();
+
+                // CSV header
+                putText(HEADER);
+                put('\n');
+
+                // CSV rows
+                for (Player p : players) {
+                    putInt(p.getNumber());
+                    put(',');
+                    putField(p.getName());
+                    put(',');
+                    putField(p.getPosition());
+                    put(',');
+                    putField(p.getDateOfBirth());
+                    put(',');
+                    putInt(p.getAge());
+                    put(',');
+                    putField(p.getNationality());
+                    put(',');
+                    putField(p.getCurrentClub());
+                    put(',');
+                    putField(p.getHeight());
+                    put(',');
+                    putField(p.getFoot());
+                    put(',');
+                    putField(p.getJoined());
+                    put(',');
+                    putField(p.getSignedFrom());
+                    put(',');
+                    putField(p.getMarketValue());
+                    put('\n');
+                }
+
+                encode(true);
+                while (encoder.flush(bytes).isOverflow()) {
+                    writeBytes();
+                }
+                writeBytes();
+                // On disk before the rename, so a crash never leaves a truncated file under the final name
+                channel.force(true);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            } finally {
+                channel = null;
+            }
+        }
+
+        /*
+         * Text value as a CSV field: empty for null, and wrapped in quotes (with inner quotes
+         * doubled) if it contains a comma or a quote.
+         */
+        private void putField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"') {
+                    quote = true;
+                    break;
+                }
+            }
+            if (!quote) {
+                putText(value);
+                return;
+            }
+
+            put('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    put('"');
+                }
+                put(c);
+            }
+            put('"');
+        }
+
+        private void putInt(int value) throws IOException {
+            if (value < 0) {
+                if (value == Integer.MIN_VALUE) {
+                    putText("-2147483648");
+                    return;
+                }
+                put('-');
+                value = -value;
+            }
+            int divisor = 1;
+            while (value / divisor >= 10) {
+                divisor *= 10;
+            }
+            for (; divisor > 0; divisor /= 10) {
+                put((char) ('0' + value / divisor % 10));
+            }
+        }
+
+        private void putText(String text) throws IOException {
+            int start = 0;
+            while (start < text.length()) {
+                if (!chars.hasRemaining()) {
+                    encode(false);
+                }
+                int end = Math.min(text.length(), start + chars.remaining());
+                chars.put(text, start, end);
+                start = end;
+            }
+        }
+
+        private void put(char c) throws IOException {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            chars.put(c);
+        }
+
+        // Encodes the buffered chars into bytes, writing out full byte blocks
+        private void encode(boolean endOfInput) throws IOException {
+            chars.flip();
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            while (result.isOverflow()) {
+                writeBytes();
+                result = encoder.encode(chars, bytes, endOfInput);
+            }
+            // An unfinished surrogate pair stays in the buffer until its second half arrives
+            chars.compact();
+        }
+
+        private void writeBytes() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * BipartiteCoPlayGraph stores only the player <-> team-season incidence:
+ * which players were in which roster. Memory is linear in the number of roster
+ * memberships, instead of quadratic in roster size like a materialized edge list.
+ * <p>
+ * Co-play information is derived on demand:
+ * <ul>
+ *     <li>{@link #coPlayWeight(int, int)} intersects the two players' roster lists,</li>
+ *     <li>{@link #teammates(int)} and {@link #degree(int)} expand one player's rosters,</li>
+ *     <li>{@link #project()} runs the whole clique projection as one batched sparse product
+ *     and freezes it into a {@link CsrGraph}.</li>
+ * </ul>
+ * Queries share scratch buffers, so an instance must not be queried from several threads at once.
+ */
+public class BipartiteCoPlayGraph {
+
+    private final PlayerDictionary dictionary;
+
+    // Roster -> players: players of roster r are rosterPlayers[rosterOffsets[r] .. rosterOffsets[r + 1])
+    private final IntList rosterOffsets = new IntList();
+    private final IntList rosterPlayers = new IntList(1024);
+
+    // Player -> rosters, in ascending roster order; rebuilt lazily after new rosters are added
+    private int[] playerOffsets;
+    private int[] playerRosters;
+
+    // Dense scratch counter reused by every teammate expansion
+    private int[] counter = new int[0];
+    private int[] touched = new int[0];
+
+    /**
+     * Teammates of one player, sorted by ID, with the number of shared team-seasons.
+     */
+    public record Teammates(int[] ids, int[] weights) {
+    }
+
+    public BipartiteCoPlayGraph(PlayerDictionary dictionary) {
+        this.dictionary = dictionary;
+        rosterOffsets.add(0);
+    }
+
+    public PlayerDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Adds one team-season roster.
+     *
+     * @param players distinct IDs of the players in the roster
+     * @return the roster index
+     */
+    public int addRoster(int[] players) {
+        for (int p : players) {
+            rosterPlayers.add(p);
+        }
+        rosterOffsets.add(rosterPlayers.size());
+        playerOffsets = null;
+        return rosterCount() - 1;
+    }
+
+    // Number of rosters added
+    public int rosterCount() {
+        return rosterOffsets.size() - 1;
+    }
+
+    // Total number of player-roster memberships
+    public int incidenceCount() {
+        return rosterPlayers.size();
+    }
+
+    /**
+     * @return the number of team-seasons the player appears in
+     */
+    public int rosterCountOf(int player) {
+        ensureIncidence();
+        return player < playerOffsets.length - 1 ? playerOffsets[player + 1] - playerOffsets[player] : 0;
+    }
+
+    /**
+     * Counts the team-seasons two players shared, by merging their sorted roster lists.
+     *
+     * @return the co-play weight, 0 if they never played together
+     */
+    public int coPlayWeight(int playerA, int playerB) {
+        ensureIncidence();
+        if (playerA == playerB || Math.max(playerA, playerB) >= playerOffsets.length - 1) {
+            return 0;
+        }
+        int i = playerOffsets[playerA], iEnd = playerOffsets[playerA + 1];
+        int j = playerOffsets[playerB], jEnd = playerOffsets[playerB + 1];
+        int shared = 0;
+        while (i < iEnd && j < jEnd) {
+            int a = playerRosters[i];
+            int b = playerRosters[j];
+            if (a == b) {
+                shared++;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * @return number of unique teammates of a player
+     */
+    public int degree(int player) {
+        int count = expand(player);
+        clearScratch(count);
+        return count;
+    }
+
+    /**
+     * Expands one player's rosters into the list of teammates and shared team-season counts.
+     */
+    public Teammates teammates(int player) {
+        int count = expand(player);
+        Arrays.sort(touched, 0, count);
+        int[] ids = Arrays.copyOf(touched, count);
+        int[] weights = new int[count];
+        for (int k = 0; k < count; k++) {
+            weights[k] = counter[ids[k]];
+        }
+        clearScratch(count);
+        return new Teammates(ids, weights);
+    }
+
+    /**
+     * Materializes the full co-play graph: one sparse row expansion per player,
+     * written straight into CSR arrays.
+     */
+    public CsrGraph project() {
+        ensureIncidence();
+        int n = dictionary.size();
+        int[] offsets = new int[n + 1];
+        int[] neighbors = new int[Math.max(16, incidenceCount())];
+        int[] weights = new int[neighbors.length];
+        int size = 0;
+
+        for (int u = 0; u < n; u++) {
+            int count = expand(u);
+            Arrays.sort(touched, 0, count);
+            if (size + count > neighbors.length) {
+                int capacity = Math.max(size + count, neighbors.length * 2);
+                neighbors = Arrays.copyOf(neighbors, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            for (int k = 0; k < count; k++) {
+                int v = touched[k];
+                neighbors[size] = v;
+                weights[size] = counter[v];
+                size++;
+            }
+            clearScratch(count);
+            offsets[u + 1] = size;
+        }
+
+        return new CsrGraph(dictionary, offsets,
+                Arrays.copyOf(neighbors, size),
+                Arrays.copyOf(weights, size));
+    }
+
+    /*
+     * Counts, for every teammate of the player, the rosters they share.
+     * Leaves the teammates in touched[0 .. count) and their counts in counter[].
+     */
+    private int expand(int player) {
+        ensureIncidence();
+        if (counter.length < dictionary.size()) {
+            counter = new int[dictionary.size()];
+            touched = new int[dictionary.size()];
+        }
+        if (player >= playerOffsets.length - 1) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int k = playerOffsets[player]; k < playerOffsets[player + 1]; k++) {
+            int roster = playerRosters[k];
+            for (int i = rosterOffsets.get(roster); i < rosterOffsets.get(roster + 1); i++) {
+                int v = rosterPlayers.get(i);
+                if (v != player && counter[v]++ == 0) {
+                    touched[count++] = v;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void clearScratch(int count) {
+        for (int k = 0; k < count; k++) {
+            counter[touched[k]] = 0;
+        }
+    }
+
+    // Builds the player -> rosters direction of the incidence (counting sort by player)
+    private void ensureIncidence() {
+        if (playerOffsets != null) {
+            return;
+        }
+        int n = dictionary.size();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < rosterPlayers.size(); i++) {
+            offsets[rosterPlayers.get(i) + 1]++;
+        }
+        for (int p = 0; p < n; p++) {
+            offsets[p + 1] += offsets[p];
+        }
+
+        int[] rosters = new int[rosterPlayers.size()];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int r = 0; r < rosterCount(); r++) {
+            for (int i = rosterOffsets.get(r); i < rosterOffsets.get(r + 1); i++) {
+                int p = rosterPlayers.get(i);
+                rosters[fill[p]++] = r;
+            }
+        }
+
+        playerRosters = rosters;
+        playerOffsets = offsets;
+    }
+}
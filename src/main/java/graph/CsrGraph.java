@@ -0,0 +1,242 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * CsrGraph is an immutable, weighted, undirected co-play graph stored in
+ * compressed-sparse-row form.
+ * <p>
+ * The teammates of player {@code u} are {@code neighbors[offsets[u] .. offsets[u + 1])},
+ * sorted by ID, and {@code weights} holds the matching number of shared team-seasons.
+ * Each undirected edge is therefore stored once per endpoint, as three ints in total
+ * per direction, instead of a boxed HashMap entry.
+ */
+public class CsrGraph {
+
+    private final PlayerDictionary dictionary;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final int[] weights;
+
+    CsrGraph(PlayerDictionary dictionary, int[] offsets, int[] neighbors, int[] weights) {
+        this.dictionary = dictionary;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.weights = weights;
+    }
+
+    /**
+     * Builds a graph from a list of undirected edges, each given once.
+     *
+     * @param dictionary player dictionary; every player ID gets a row
+     * @param playerA    first endpoint of each edge
+     * @param playerB    second endpoint of each edge
+     * @param weights    weight of each edge
+     * @param count      number of edges in the arrays
+     */
+    static CsrGraph fromEdges(PlayerDictionary dictionary, int[] playerA, int[] playerB, int[] weights, int count) {
+        int n = dictionary.size();
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < count; e++) {
+            offsets[playerA[e] + 1]++;
+            offsets[playerB[e] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        // Fill each row with (neighbor, weight) packed in a long, so sorting by neighbor keeps the pairs together
+        long[] entries = new long[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int e = 0; e < count; e++) {
+            int a = playerA[e];
+            int b = playerB[e];
+            entries[fill[a]++] = ((long) b << 32) | weights[e];
+            entries[fill[b]++] = ((long) a << 32) | weights[e];
+        }
+
+        int[] neighbors = new int[entries.length];
+        int[] rowWeights = new int[entries.length];
+        for (int u = 0; u < n; u++) {
+            Arrays.sort(entries, offsets[u], offsets[u + 1]);
+        }
+        for (int i = 0; i < entries.length; i++) {
+            neighbors[i] = (int) (entries[i] >>> 32);
+            rowWeights[i] = (int) entries[i];
+        }
+        return new CsrGraph(dictionary, offsets, neighbors, rowWeights);
+    }
+
+    public PlayerDictionary getDictionary() {
+        return dictionary;
+    }
+
+    // Number of players known to the dictionary (including isolated ones)
+    public int nodeCount() {
+        return offsets.length - 1;
+    }
+
+    // Number of unique undirected edges
+    public int edgeCount() {
+        return neighbors.length / 2;
+    }
+
+    public int degree(int player) {
+        return offsets[player + 1] - offsets[player];
+    }
+
+    /**
+     * @param player player ID
+     * @param k      index of the teammate, from 0 to degree - 1
+     * @return the ID of the k-th teammate
+     */
+    public int neighbor(int player, int k) {
+        return neighbors[offsets[player] + k];
+    }
+
+    /**
+     * @param player player ID
+     * @param k      index of the teammate, from 0 to degree - 1
+     * @return the number of shared team-seasons with the k-th teammate
+     */
+    public int weight(int player, int k) {
+        return weights[offsets[player] + k];
+    }
+
+    /**
+     * @return the number of shared team-seasons of two players, 0 if they never played together
+     */
+    public int weightBetween(int playerA, int playerB) {
+        int i = Arrays.binarySearch(neighbors, offsets[playerA], offsets[playerA + 1], playerB);
+        return i >= 0 ? weights[i] : 0;
+    }
+
+    /**
+     * Returns a read-only adjacency view in the classic
+     * {@code player -> (teammate -> sharedSeasons)} shape.
+     * Only players with at least one teammate appear as keys.
+     * Nothing is copied; lookups go straight to the CSR arrays.
+     */
+    public Map<String, Map<String, Integer>> asMap() {
+        return new AdjacencyView();
+    }
+
+    private class AdjacencyView extends AbstractMap<String, Map<String, Integer>> {
+        private int size = -1;
+
+        @Override
+        public Map<String, Integer> get(Object key) {
+            return containsKey(key) ? new RowView(dictionary.idOf(key)) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            int u = dictionary.idOf(key);
+            return u >= 0 && u < nodeCount() && degree(u) > 0;
+        }
+
+        @Override
+        public int size() {
+            if (size < 0) {
+                int count = 0;
+                for (int u = 0; u < nodeCount(); u++) {
+                    if (degree(u) > 0) count++;
+                }
+                size = count;
+            }
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, Map<String, Integer>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Map<String, Integer>>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            while (from < nodeCount() && degree(from) == 0) from++;
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < nodeCount();
+                        }
+
+                        @Override
+                        public Entry<String, Map<String, Integer>> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            int u = next;
+                            next = advance(u + 1);
+                            return new SimpleImmutableEntry<>(dictionary.nameOf(u), new RowView(u));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return AdjacencyView.this.size();
+                }
+            };
+        }
+    }
+
+    private class RowView extends AbstractMap<String, Integer> {
+        private final int player;
+
+        RowView(int player) {
+            this.player = player;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int v = dictionary.idOf(key);
+            if (v < 0 || v >= nodeCount()) return null;
+            int w = weightBetween(player, v);
+            return w > 0 ? w : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return degree(player);
+        }
+
+        @Override
+        public Set<Entry<String, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int k = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return k < degree(player);
+                        }
+
+                        @Override
+                        public Entry<String, Integer> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            Entry<String, Integer> e = new SimpleImmutableEntry<>(
+                                    dictionary.nameOf(neighbor(player, k)), weight(player, k));
+                            k++;
+                            return e;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return degree(player);
+                }
+            };
+        }
+    }
+}
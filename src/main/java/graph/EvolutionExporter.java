@@ -16,7 +16,7 @@ public class EvolutionExporter {
      * @param outputPath path for the output CSV file
      */
     public static void exportEvolutionStats(EvolutionGraphBuilder builder, String outputPath) {
-        List<EvolutionGraphBuilder.SeasonStats> stats = builder.getEvolutionStats();
+        List<EvolutionGraphBuilder.SeasonStats> stats = new EvolutionSweep(builder).run();
 
         try (FileWriter writer = new FileWriter(outputPath)) {
             // Header
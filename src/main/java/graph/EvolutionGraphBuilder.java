@@ -1,13 +1,18 @@
 package graph;
 
+import data.CsvTokenizer;
+import data.DatasetManifest;
+import data.RosterArchive;
+import lombok.AccessLevel;
 import lombok.Getter;
 import model.Player;
+import model.TeamSeason;
+import model.TeamSeasonFilter;
 
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 /*
  * EvolutionGraphBuilder extends the basic GraphBuilder with temporal capabilities.
@@ -22,12 +27,18 @@ public class EvolutionGraphBuilder {
     // Player registry (player name -> Player object with most recent data)
     private final Map<String, Player> players = new HashMap<>();
 
-    // Team-season data: "TeamName_Season" -> Set of player names
-    private final Map<String, Set<String>> teamSeasonRosters = new TreeMap<>();
+    // Team-season data: (TeamName, Season) -> bitset of player IDs
+    private final Map<TeamSeason, BitSet> teamSeasonRosters = new TreeMap<>();
 
-    // Edge data with temporal info: "PlayerA-PlayerB" -> Map<Season, Count>
+    // Season -> bitset of player IDs of all teams in that season (merged rosters)
+    private final Map<Integer, BitSet> seasonRosters = new HashMap<>();
+
+    // Player name <-> int ID, shared by all edge data below
+    private final PlayerDictionary dictionary = new PlayerDictionary();
+
+    // Edge data with temporal info: packed (PlayerA, PlayerB) IDs -> seasons and counts
     // This tracks in which seasons two players played together
-    private final Map<String, Map<Integer, Integer>> edgeSeasonData = new HashMap<>();
+    private final TemporalEdgeStore edgeStore = new TemporalEdgeStore();
 
     // All seasons in the dataset (sorted)
     private final TreeSet<Integer> allSeasons = new TreeSet<>();
@@ -35,128 +46,470 @@ public class EvolutionGraphBuilder {
     // All teams in the dataset
     private final Set<String> allTeams = new HashSet<>();
 
+    // Incremented whenever a roster is added or removed, so derived views know when to rebuild
+    private long modificationCount;
+
+    // Cumulative edge weights reused by every slider step, dropped once the dataset changes
+    @Getter(AccessLevel.NONE)
+    private int[] weightsScratch;
+    @Getter(AccessLevel.NONE)
+    private long weightsScratchVersion = -1;
+
+    private static final BitSet EMPTY_ROSTER = new BitSet(0);
+
     /**
      * @param folderPath path to folder containing team CSV files
      */
     public void loadFromFolder(String folderPath) {
-        File folder = new File(folderPath);
-        if (!folder.exists() || !folder.isDirectory()) {
-            System.err.println("Invalid folder path: " + folderPath);
+        loadFromFolder(folderPath, 1);
+    }
+
+    /*
+     * Loads the folder with several worker threads: files are parsed and their co-play edges
+     * built concurrently, then merged in file-name order, so the result is identical to a
+     * sequential load.
+     */
+    /**
+     * @param folderPath  path to folder containing team CSV files
+     * @param parallelism number of parsing threads (1 = sequential)
+     */
+    public void loadFromFolder(String folderPath, int parallelism) {
+        loadFromFolder(folderPath, parallelism, null);
+    }
+
+    /*
+     * Same as loadFromFolder(folderPath, parallelism), but first tries a binary snapshot
+     * written by an earlier run. The snapshot is used only while no CSV file was added,
+     * removed or modified since; otherwise the folder is parsed and the snapshot rewritten.
+     */
+    /**
+     * @param folderPath  path to folder containing team CSV files
+     * @param parallelism number of parsing threads (1 = sequential)
+     * @param cacheFile   snapshot file, or null to always parse the CSV files
+     */
+    public void loadFromFolder(String folderPath, int parallelism, Path cacheFile) {
+        loadFromFolder(folderPath, TeamSeasonFilter.ALL, parallelism, cacheFile);
+    }
+
+    /*
+     * Loads only the team-seasons selected by the filter. Team and season are taken from
+     * the file names, so files that do not match are never opened.
+     * Can be called again on a loaded builder to add more teams or seasons; team-seasons
+     * that are already loaded are skipped.
+     */
+    /**
+     * @param folderPath  path to folder containing team CSV files
+     * @param filter      season range and teams to load
+     * @param parallelism number of parsing threads (1 = sequential)
+     */
+    public void loadFromFolder(String folderPath, TeamSeasonFilter filter, int parallelism) {
+        loadFromFolder(folderPath, filter, parallelism, null);
+    }
+
+    /**
+     * @param folderPath  path to folder containing team CSV files
+     * @param filter      season range and teams to load
+     * @param parallelism number of parsing threads (1 = sequential)
+     * @param cacheFile   snapshot file, or null to always parse the CSV files; read only when
+     *                    the builder is still empty, written whenever the builder then holds
+     *                    exactly the matching files (also after rosters were streamed in)
+     */
+    public void loadFromFolder(String folderPath, TeamSeasonFilter filter, int parallelism, Path cacheFile) {
+        List<DatasetManifest.Entry> plan = ParallelIngest.planTeamFiles(folderPath);
+        if (plan == null) {
             return;
         }
 
-        File[] files = folder.listFiles((dir, name) -> name.endsWith(".csv"));
-        if (files == null || files.length == 0) {
-            System.err.println("No CSV files found in " + folderPath);
+        boolean firstLoad = dictionary.size() == 0;
+        File[] files = selectFiles(folderPath, plan, filter);
+        if (files.length == 0 && firstLoad) {
+            System.out.println("No new team-season files match " + filter);
             return;
         }
 
-        System.out.println("Loading " + files.length + " team-season files for evolution analysis...\n");
+        // A snapshot describes a whole builder, so it is only read for a first load
+        if (firstLoad && cacheFile != null) {
+            if (EvolutionSnapshotCache.load(this, files, cacheFile)) {
+                System.out.println("Loaded " + files.length + " team-season files from cache " + cacheFile + "\n");
+                printLoadSummary();
+                return;
+            }
+            // Nothing of a missing, stale or broken snapshot may stay behind under the parsed files
+            clear();
+        }
 
-        for (File file : files) {
-            processTeamFile(file);
+        if (files.length == 0) {
+            System.out.println("No new team-season files match " + filter);
+        } else {
+            System.out.println("Loading " + files.length + " team-season files for evolution analysis...\n");
+            applyTeamFiles(ParallelIngest.parseAll(files, this::readTeamFile, parallelism), parallelism);
         }
 
-        System.out.println("Data loaded successfully!");
-        System.out.println("Teams: " + allTeams.size());
-        System.out.println("Seasons: " + allSeasons.first() + " - " + allSeasons.last());
-        System.out.println("Total players: " + players.size());
+        // Rosters applied earlier (e.g. streamed from a download) came from the same CSV files, so the
+        // builder can still be saved, as long as it holds no team-season outside the matching files
+        if (cacheFile != null) {
+            List<File> matching = new ArrayList<>(plan.size());
+            Set<TeamSeason> matchingTeamSeasons = new HashSet<>();
+            for (DatasetManifest.Entry entry : plan) {
+                if (filter.matches(entry.teamSeason())) {
+                    matching.add(new File(folderPath, entry.fileName()));
+                    matchingTeamSeasons.add(entry.teamSeason());
+                }
+            }
+            if (matchingTeamSeasons.containsAll(teamSeasonRosters.keySet())) {
+                EvolutionSnapshotCache.save(this, matching.toArray(new File[0]), cacheFile);
+            }
+        }
+
+        printLoadSummary();
     }
 
     /*
-     * Processes one team-season CSV file.
-     * Extracts team name and season from filename (e.g., "Bayern_Munich_2020.csv")
+     * Loads team-seasons from a single roster archive (see RosterArchive) instead of a folder
+     * of CSV files. The archive is read in one pass, skipping rosters the filter excludes or
+     * that are already loaded; the selected rosters are parsed in parallel while it is read.
+     * The archive is not checked against the CSV folder (see RosterArchive.isCurrent).
+     */
+    /**
+     * @param archiveFile roster archive written by {@link RosterArchive#write}
+     * @param filter      season range and teams to load
+     * @param parallelism number of parsing threads (1 = sequential)
      */
-    private void processTeamFile(File csvFile) {
-        String fileName = csvFile.getName().replace(".csv", "");
+    public void loadFromArchive(Path archiveFile, TeamSeasonFilter filter, int parallelism) {
+        Predicate<TeamSeason> selector =
+                teamSeason -> filter.matches(teamSeason) && !teamSeasonRosters.containsKey(teamSeason);
+        List<TeamFileData> parsed;
+        try {
+            long selected = RosterArchive.readTableOfContents(archiveFile).stream()
+                    .filter(entry -> selector.test(entry.teamSeason()))
+                    .count();
+            if (selected == 0) {
+                System.out.println("No new team-seasons in " + archiveFile + " match " + filter);
+                return;
+            }
 
-        // Extract season
-        Pattern pattern = Pattern.compile("(.+)_(\\d{4})$");
-        Matcher matcher = pattern.matcher(fileName);
+            System.out.println("Loading " + selected + " team-seasons from archive " + archiveFile + "...\n");
 
-        if (!matcher.matches()) {
-            System.err.println("Cannot parse filename: " + fileName);
+            parsed = ParallelIngest.parseArchive(archiveFile, selector, roster -> {
+                try {
+                    return readRoster(roster.entry().teamSeason(), roster.open(), roster.entry().fileName());
+                } catch (IOException e) {
+                    System.err.println("Error reading " + roster.entry().fileName() + ": " + e.getMessage());
+                    return null;
+                }
+            }, parallelism);
+        } catch (IOException e) {
+            System.err.println("Error reading roster archive " + archiveFile + ": " + e.getMessage());
             return;
         }
+        applyTeamFiles(parsed, parallelism);
 
-        String teamName = matcher.group(1).replace("_", " ");
-        int season = Integer.parseInt(matcher.group(2));
+        printLoadSummary();
+    }
 
-        allTeams.add(teamName);
-        allSeasons.add(season);
+    private void printLoadSummary() {
+        System.out.println("Data loaded successfully!");
+        System.out.println("Teams: " + allTeams.size());
+        System.out.println("Seasons: " + allSeasons.first() + " - " + allSeasons.last());
+        System.out.println("Total players: " + players.size());
+    }
 
-        Set<String> playerNames = new HashSet<>();
-        String teamSeasonKey = teamName + "_" + season;
+    // Planned files whose team-season matches the filter and is not loaded yet, in file-name order
+    private File[] selectFiles(String folderPath, List<DatasetManifest.Entry> plan, TeamSeasonFilter filter) {
+        List<File> selected = new ArrayList<>(plan.size());
+        for (DatasetManifest.Entry entry : plan) {
+            TeamSeason teamSeason = entry.teamSeason();
+            if (filter.matches(teamSeason) && !teamSeasonRosters.containsKey(teamSeason)) {
+                selected.add(new File(folderPath, entry.fileName()));
+            }
+        }
+        return selected.toArray(new File[0]);
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(csvFile))) {
-            String line;
-            boolean isHeader = true;
+    // Parsed content of one team-season file, not yet merged into the graph
+    private record TeamFileData(TeamSeason teamSeason, Set<String> playerNames, List<Player> players) {
+    }
 
-            while ((line = br.readLine()) != null) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
+    /*
+     * Reads one team-season CSV file without touching the builder state (safe to run in parallel).
+     * Extracts team name and season from filename (e.g., "Bayern_Munich_2020.csv")
+     */
+    private TeamFileData readTeamFile(File csvFile) {
+        TeamSeason teamSeason = parseTeamSeason(csvFile);
+        if (teamSeason == null) {
+            return null;
+        }
 
-                String[] parts = parseCSVLine(line);
-                if (parts.length < 2) continue;
+        try {
+            return readRoster(teamSeason, new FileInputStream(csvFile), csvFile.getName());
+        } catch (FileNotFoundException e) {
+            System.err.println("Error reading " + csvFile.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /*
+     * Reads the CSV content of one team-season roster from a stream, which is closed afterwards.
+     * Stateless like readTeamFile.
+     */
+    private TeamFileData readRoster(TeamSeason teamSeason, InputStream csvContent, String sourceName) {
+        Set<String> playerNames = new LinkedHashSet<>();
+        List<Player> filePlayers = new ArrayList<>();
 
-                String name = parts[1].trim();
-                if (name.isEmpty() || name.equals("N/A")) continue;
+        try (CsvTokenizer csv = new CsvTokenizer(csvContent)) {
+            // Skip header
+            csv.nextRecord();
 
+            while (csv.nextRecord()) {
+                if (csv.fieldCount() < 2) continue;
+                if (csv.fieldIsEmpty(1) || csv.fieldEquals(1, "N/A")) continue;
+
+                String name = csv.field(1);
                 playerNames.add(name);
 
                 // Store player info
-                if (parts.length >= 12) {
+                if (csv.fieldCount() >= 12) {
                     Player player = new Player(
-                            parseIntSafe(parts[0]),
+                            csv.fieldAsInt(0, -1),
                             name,
-                            parts.length > 2 ? parts[2] : "N/A",
-                            parts.length > 3 ? parts[3] : "N/A",
-                            parts.length > 4 ? parseIntSafe(parts[4]) : -1,
-                            parts.length > 5 ? parts[5] : "N/A",
-                            parts.length > 6 ? parts[6] : "N/A",
-                            parts.length > 7 ? parts[7] : "N/A",
-                            parts.length > 8 ? parts[8] : "N/A",
-                            parts.length > 9 ? parts[9] : "N/A",
-                            parts.length > 10 ? parts[10] : "N/A",
-                            parts.length > 11 ? parts[11] : "N/A"
+                            csv.field(2),
+                            csv.field(3),
+                            csv.fieldAsInt(4, -1),
+                            csv.field(5),
+                            csv.field(6),
+                            csv.field(7),
+                            csv.field(8),
+                            csv.field(9),
+                            csv.field(10),
+                            csv.field(11)
                     );
-                    players.put(name, player);
+                    filePlayers.add(player);
                 }
             }
         } catch (IOException e) {
-            System.err.println("Error reading " + csvFile.getName() + ": " + e.getMessage());
+            System.err.println("Error reading " + sourceName + ": " + e.getMessage());
+            return null;
+        }
+
+        return new TeamFileData(teamSeason, playerNames, filePlayers);
+    }
+
+    // Extracts team name and season from a file name such as "Bayern_Munich_2020.csv"
+    static TeamSeason parseTeamSeason(File csvFile) {
+        TeamSeason teamSeason = DatasetManifest.parseFileName(csvFile.getName());
+        if (teamSeason == null) {
+            System.err.println("Cannot parse filename: " + csvFile.getName().replace(".csv", ""));
+        }
+        return teamSeason;
+    }
+
+    /*
+     * Merges parsed team-season files (null entries are skipped) into the graph, in list order.
+     * Players and rosters are registered on the calling thread; the co-play edges are built
+     * by the workers into one partial edge store per run of consecutive files, and the
+     * partial stores are merged in file order, so the result (player and edge IDs included)
+     * is the same as applying the files one by one.
+     */
+    private void applyTeamFiles(List<TeamFileData> files, int parallelism) {
+        List<TeamFileData> loaded = new ArrayList<>(files.size());
+        List<int[]> rosters = new ArrayList<>(files.size());
+        for (TeamFileData data : files) {
+            if (data != null) {
+                loaded.add(data);
+                rosters.add(registerTeamFile(data));
+            }
+        }
+
+        if (parallelism <= 1 || loaded.size() < 2) {
+            for (int i = 0; i < loaded.size(); i++) {
+                addCoPlayEdges(edgeStore, rosters.get(i), loaded.get(i).teamSeason().season());
+            }
             return;
         }
 
-        teamSeasonRosters.put(teamSeasonKey, playerNames);
+        // A few runs per worker, so that uneven rosters still balance
+        int runCount = Math.min(loaded.size(), parallelism * 4);
+        List<int[]> runs = new ArrayList<>(runCount);
+        for (int r = 0; r < runCount; r++) {
+            runs.add(new int[]{r * loaded.size() / runCount, (r + 1) * loaded.size() / runCount});
+        }
+        List<TemporalEdgeStore> partials = ParallelIngest.parseAll(runs, run -> {
+            TemporalEdgeStore partial = new TemporalEdgeStore();
+            for (int i = run[0]; i < run[1]; i++) {
+                addCoPlayEdges(partial, rosters.get(i), loaded.get(i).teamSeason().season());
+            }
+            return partial;
+        }, parallelism);
+        for (TemporalEdgeStore partial : partials) {
+            edgeStore.addAll(partial);
+        }
+    }
+
+    /*
+     * Merges one parsed team-season file into the graph:
+     * player registry, rosters and temporal edges.
+     */
+    private void applyTeamFile(TeamFileData data) {
+        addCoPlayEdges(edgeStore, registerTeamFile(data), data.teamSeason().season());
+    }
+
+    // Registers the players and roster of a parsed file, and returns the roster's player IDs
+    private int[] registerTeamFile(TeamFileData data) {
+        for (Player player : data.players()) {
+            players.put(player.getName(), player);
+        }
+
+        int[] roster = data.playerNames().stream().mapToInt(dictionary::intern).toArray();
+        registerRoster(data.teamSeason(), roster);
+        return roster;
+    }
 
-        // Create edges between all teammates in this season
-        List<String> playerList = new ArrayList<>(playerNames);
-        for (int i = 0; i < playerList.size(); i++) {
-            for (int j = i + 1; j < playerList.size(); j++) {
-                addTemporalEdge(playerList.get(i), playerList.get(j), season);
+    // Create edges between all teammates in this season
+    private static void addCoPlayEdges(TemporalEdgeStore store, int[] roster, int season) {
+        for (int i = 0; i < roster.length; i++) {
+            for (int j = i + 1; j < roster.length; j++) {
+                store.add(roster[i], roster[j], season);
             }
         }
     }
 
-    // Adds or updates an edge with temporal information
-    private void addTemporalEdge(String playerA, String playerB, int season) {
-        String edgeKey = createEdgeKey(playerA, playerB);
+    /*
+     * Records a team-season roster (player IDs) in the team, season and roster indexes.
+     * Does not create edges.
+     */
+    void registerRoster(TeamSeason teamSeason, int[] roster) {
+        int season = teamSeason.season();
+        allTeams.add(teamSeason.team());
+        allSeasons.add(season);
 
-        edgeSeasonData.computeIfAbsent(edgeKey, k -> new HashMap<>())
-                .merge(season, 1, Integer::sum);
+        modificationCount++;
+        BitSet rosterBits = new BitSet(dictionary.size());
+        for (int player : roster) {
+            rosterBits.set(player);
+        }
+        teamSeasonRosters.put(teamSeason, rosterBits);
+        seasonRosters.computeIfAbsent(season, s -> new BitSet(dictionary.size())).or(rosterBits);
     }
 
-    private String createEdgeKey(String playerA, String playerB) {
-        return playerA.compareTo(playerB) < 0
-                ? playerA + "|||" + playerB
-                : playerB + "|||" + playerA;
+    /*
+     * Incremental update for one added or changed team-season file: the edges of the
+     * previous version of that team-season (if any) are retracted, then the file is applied.
+     */
+    /**
+     * @param csvFile the team-season CSV file
+     * @return true if the file was read and applied
+     */
+    public boolean reloadTeamFile(File csvFile) {
+        TeamFileData data = readTeamFile(csvFile);
+        if (data == null) {
+            return false;
+        }
+        removeTeamSeason(data.teamSeason());
+        applyTeamFile(data);
+        return true;
     }
 
-    private String[] parseEdgeKey(String edgeKey) {
-        return edgeKey.split("\\|\\|\\|");
+    /*
+     * Same as reloadTeamFile, for a roster that is already in memory (e.g. just scraped):
+     * applies the same rows a saved CSV file would give, without reading the file back.
+     */
+    /**
+     * @param teamSeason team and season of the roster
+     * @param roster     players of the roster; players without a name are skipped
+     */
+    public void applyRoster(TeamSeason teamSeason, List<Player> roster) {
+        Set<String> playerNames = new LinkedHashSet<>();
+        List<Player> rosterPlayers = new ArrayList<>(roster.size());
+        for (Player player : roster) {
+            String name = player.getName();
+            if (name == null || name.isEmpty() || name.equals("N/A")) continue;
+            playerNames.add(name);
+            rosterPlayers.add(player);
+        }
+
+        removeTeamSeason(teamSeason);
+        applyTeamFile(new TeamFileData(teamSeason, playerNames, rosterPlayers));
+    }
+
+    /*
+     * Incremental update for a deleted team-season file: retracts its roster and edges.
+     */
+    /**
+     * @param csvFile the deleted team-season CSV file (only its name is used)
+     * @return true if the team-season was loaded before
+     */
+    public boolean removeTeamFile(File csvFile) {
+        TeamSeason teamSeason = parseTeamSeason(csvFile);
+        return teamSeason != null && removeTeamSeason(teamSeason);
+    }
+
+    // Drops every roster, player and edge (e.g. a snapshot that failed to load), leaving an empty builder
+    void clear() {
+        players.clear();
+        teamSeasonRosters.clear();
+        seasonRosters.clear();
+        dictionary.clear();
+        edgeStore.clear();
+        allSeasons.clear();
+        allTeams.clear();
+        modificationCount++;
+    }
+
+    /*
+     * Inverse of applyTeamFile: retracts the team-season's co-play edges and roster, and drops
+     * the season, team and player details that no other roster refers to any more.
+     * Player IDs stay assigned in the dictionary.
+     */
+    private boolean removeTeamSeason(TeamSeason teamSeason) {
+        BitSet rosterBits = teamSeasonRosters.remove(teamSeason);
+        if (rosterBits == null) {
+            return false;
+        }
+        modificationCount++;
+
+        int season = teamSeason.season();
+        int[] roster = rosterBits.stream().toArray();
+        edgeStore.removeRoster(roster, season);
+
+        // Rebuild the season and team indexes from the remaining rosters
+        BitSet seasonBits = new BitSet(dictionary.size());
+        boolean seasonStillPresent = false;
+        boolean teamStillPresent = false;
+        for (Map.Entry<TeamSeason, BitSet> entry : teamSeasonRosters.entrySet()) {
+            if (entry.getKey().season() == season) {
+                seasonBits.or(entry.getValue());
+                seasonStillPresent = true;
+            }
+            if (entry.getKey().team().equals(teamSeason.team())) {
+                teamStillPresent = true;
+            }
+        }
+        if (!seasonStillPresent) {
+            seasonRosters.remove(season);
+            allSeasons.remove(season);
+        } else {
+            seasonRosters.put(season, seasonBits);
+        }
+        if (!teamStillPresent) {
+            allTeams.remove(teamSeason.team());
+        }
+
+        // Forget details of players that no longer appear in any season
+        for (int player : roster) {
+            if (!isInAnySeason(player)) {
+                players.remove(dictionary.nameOf(player));
+            }
+        }
+        return true;
+    }
+
+    private boolean isInAnySeason(int player) {
+        for (BitSet seasonBits : seasonRosters.values()) {
+            if (seasonBits.get(player)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /*
@@ -171,18 +524,10 @@ public class EvolutionGraphBuilder {
     public Map<String, Map<String, Integer>> getSeasonSnapshot(int season) {
         Map<String, Map<String, Integer>> snapshot = new HashMap<>();
 
-        for (Map.Entry<String, Map<Integer, Integer>> entry : edgeSeasonData.entrySet()) {
-            Map<Integer, Integer> seasonCounts = entry.getValue();
-
-            if (seasonCounts.containsKey(season)) {
-                String[] players = parseEdgeKey(entry.getKey());
-                int weight = seasonCounts.get(season);
-
-                snapshot.computeIfAbsent(players[0], k -> new HashMap<>())
-                        .put(players[1], weight);
-                snapshot.computeIfAbsent(players[1], k -> new HashMap<>())
-                        .put(players[0], weight);
-            }
+        IntList seasonEdges = edgeStore.edgesIn(season);
+        for (int i = 0; i < seasonEdges.size(); i++) {
+            int edge = seasonEdges.get(i);
+            putEdge(snapshot, edge, edgeStore.weightIn(edge, season));
         }
 
         return snapshot;
@@ -199,23 +544,79 @@ public class EvolutionGraphBuilder {
     public Map<String, Map<String, Integer>> getCumulativeGraph(int upToSeason) {
         Map<String, Map<String, Integer>> cumulative = new HashMap<>();
 
-        for (Map.Entry<String, Map<Integer, Integer>> entry : edgeSeasonData.entrySet()) {
-            String[] playerPair = parseEdgeKey(entry.getKey());
+        int[] weights = cumulativeWeightsScratch(upToSeason);
+        for (int edge = 0; edge < edgeStore.edgeCount(); edge++) {
+            if (weights[edge] > 0) {
+                putEdge(cumulative, edge, weights[edge]);
+            }
+        }
+
+        return cumulative;
+    }
 
-            int totalWeight = entry.getValue().entrySet().stream()
-                    .filter(e -> e.getKey() <= upToSeason)
-                    .mapToInt(Map.Entry::getValue)
-                    .sum();
+    /**
+     * Bulk form of {@link #getCumulativeGraph(int)}: the cumulative weight of every edge,
+     * indexed by edge ID of {@link #getEdgeStore()}, without building any map.
+     *
+     * @param upToSeason include all seasons up to this year
+     * @param buffer     buffer to reuse between calls, may be null
+     * @return the filled buffer (a new one if the given buffer was null or too short)
+     */
+    public int[] getCumulativeWeights(int upToSeason, int[] buffer) {
+        return edgeStore.weightsUpTo(upToSeason, buffer);
+    }
 
-            if (totalWeight > 0) {
-                cumulative.computeIfAbsent(playerPair[0], k -> new HashMap<>())
-                        .put(playerPair[1], totalWeight);
-                cumulative.computeIfAbsent(playerPair[1], k -> new HashMap<>())
-                        .put(playerPair[0], totalWeight);
+    // getCumulativeWeights into the builder's scratch buffer; the result is only valid until the next call
+    private int[] cumulativeWeightsScratch(int upToSeason) {
+        if (weightsScratchVersion != modificationCount) {
+            weightsScratch = null;
+            weightsScratchVersion = modificationCount;
+        }
+        weightsScratch = getCumulativeWeights(upToSeason, weightsScratch);
+        return weightsScratch;
+    }
+
+    /**
+     * Frozen form of {@link #getCumulativeGraph(int)}, built straight from the edge store
+     * into a {@link CsrGraph} that shares this builder's player dictionary.
+     *
+     * @param upToSeason include all seasons up to this year
+     * @return the cumulative co-play graph
+     */
+    public CsrGraph getCumulativeCsrGraph(int upToSeason) {
+        int[] weights = cumulativeWeightsScratch(upToSeason);
+        int edgeCount = edgeStore.edgeCount();
+        int[] playerA = new int[edgeCount];
+        int[] playerB = new int[edgeCount];
+        int[] edgeWeights = new int[edgeCount];
+
+        int count = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (weights[edge] > 0) {
+                playerA[count] = edgeStore.playerA(edge);
+                playerB[count] = edgeStore.playerB(edge);
+                edgeWeights[count] = weights[edge];
+                count++;
             }
         }
+        return CsrGraph.fromEdges(dictionary, playerA, playerB, edgeWeights, count);
+    }
 
-        return cumulative;
+    /**
+     * The static co-play graph over all loaded seasons: the last cumulative view.
+     * Edge weights are the number of team-seasons two players shared.
+     */
+    public CsrGraph getFullCsrGraph() {
+        return getCumulativeCsrGraph(allSeasons.isEmpty() ? Integer.MIN_VALUE : allSeasons.last());
+    }
+
+    // Adds one stored edge to an adjacency map in both directions
+    private void putEdge(Map<String, Map<String, Integer>> adjMap, int edge, int weight) {
+        String playerA = dictionary.nameOf(edgeStore.playerA(edge));
+        String playerB = dictionary.nameOf(edgeStore.playerB(edge));
+
+        adjMap.computeIfAbsent(playerA, k -> new HashMap<>()).put(playerB, weight);
+        adjMap.computeIfAbsent(playerB, k -> new HashMap<>()).put(playerA, weight);
     }
 
     public Map<String, Map<String, Integer>> getFullGraph() {
@@ -226,80 +627,49 @@ public class EvolutionGraphBuilder {
     }
 
     public Set<String> getPlayersInSeason(int season) {
-        Set<String> activePlayers = new HashSet<>();
-
-        for (Map.Entry<String, Set<String>> entry : teamSeasonRosters.entrySet()) {
-            if (entry.getKey().endsWith("_" + season)) {
-                activePlayers.addAll(entry.getValue());
-            }
-        }
-
-        return activePlayers;
+        return toNames(getSeasonRoster(season));
     }
 
     public Set<String> getNewPlayers(int season) {
-        Set<String> currentPlayers = getPlayersInSeason(season);
-        Set<String> previousPlayers = getPlayersInSeason(season - 1);
-
-        return currentPlayers.stream()
-                .filter(p -> !previousPlayers.contains(p))
-                .collect(Collectors.toSet());
+        BitSet joined = (BitSet) getSeasonRoster(season).clone();
+        joined.andNot(getSeasonRoster(season - 1));
+        return toNames(joined);
     }
 
     public Set<String> getDepartedPlayers(int season) {
-        Set<String> currentPlayers = getPlayersInSeason(season);
-        Set<String> nextPlayers = getPlayersInSeason(season + 1);
-
-        return currentPlayers.stream()
-                .filter(p -> !nextPlayers.contains(p))
-                .collect(Collectors.toSet());
+        BitSet departed = (BitSet) getSeasonRoster(season).clone();
+        departed.andNot(getSeasonRoster(season + 1));
+        return toNames(departed);
     }
 
     public Set<String> getPlayersForTeam(String teamName, int season) {
-        String key = teamName + "_" + season;
-        return teamSeasonRosters.getOrDefault(key, new HashSet<>());
+        BitSet roster = teamSeasonRosters.get(new TeamSeason(teamName, season));
+        return roster != null ? toNames(roster) : new HashSet<>();
     }
 
-    // Generates statistics for each season showing graph evolution
-    public List<SeasonStats> getEvolutionStats() {
-        List<SeasonStats> stats = new ArrayList<>();
-
-        for (int season : allSeasons) {
-            Map<String, Map<String, Integer>> snapshot = getSeasonSnapshot(season);
-            Map<String, Map<String, Integer>> cumulative = getCumulativeGraph(season);
-
-            int nodesInSeason = snapshot.size();
-            int edgesInSeason = countEdges(snapshot);
-            int cumulativeNodes = cumulative.size();
-            int cumulativeEdges = countEdges(cumulative);
-            int newPlayers = getNewPlayers(season).size();
-            int departedPlayers = getDepartedPlayers(season).size();
-
-            stats.add(new SeasonStats(
-                    season, nodesInSeason, edgesInSeason,
-                    cumulativeNodes, cumulativeEdges,
-                    newPlayers, departedPlayers
-            ));
-        }
-
-        return stats;
+    /**
+     * Returns the IDs of all players active in a season, over all teams.
+     * The bitset is owned by the builder and must not be modified.
+     *
+     * @param season the season year
+     * @return bitset over player IDs, empty if the season has no data
+     */
+    public BitSet getSeasonRoster(int season) {
+        return seasonRosters.getOrDefault(season, EMPTY_ROSTER);
     }
 
-    private int countEdges(Map<String, Map<String, Integer>> adjMap) {
-        Set<String> counted = new HashSet<>();
-        int count = 0;
-
-        for (String a : adjMap.keySet()) {
-            for (String b : adjMap.get(a).keySet()) {
-                String key = createEdgeKey(a, b);
-                if (!counted.contains(key)) {
-                    counted.add(key);
-                    count++;
-                }
-            }
+    // Resolves a bitset of player IDs to player names
+    private Set<String> toNames(BitSet playerIds) {
+        Set<String> names = new HashSet<>(Math.max(16, playerIds.cardinality() * 2));
+        for (int id = playerIds.nextSetBit(0); id >= 0; id = playerIds.nextSetBit(id + 1)) {
+            names.add(dictionary.nameOf(id));
         }
+        return names;
+    }
 
-        return count;
+    // Generates statistics for each season showing graph evolution, in one chronological sweep
+    public List<SeasonStats> getEvolutionStats() {
+        return new EvolutionSweep(this).run();
     }
 
     public String getMostConnectedPlayer(Map<String, Map<String, Integer>> graph) {
@@ -321,57 +691,24 @@ public class EvolutionGraphBuilder {
         System.out.printf("%-8s | %-12s | %-12s | %-14s | %-14s | %-8s | %-8s%n",
                 "Season", "Nodes(year)", "Edges(year)", "Nodes(cumul)", "Edges(cumul)", "Joined", "Left");
 
-        for (SeasonStats stats : getEvolutionStats()) {
+        EvolutionSweep sweep = new EvolutionSweep(this);
+        for (SeasonStats stats : sweep.run()) {
             System.out.printf("%-8d | %-12d | %-12d | %-14d | %-14d | %-8d | %-8d%n",
                     stats.season, stats.nodesInSeason, stats.edgesInSeason,
                     stats.cumulativeNodes, stats.cumulativeEdges,
                     stats.newPlayers, stats.departedPlayers);
         }
 
-        // Most connected player overall
-        Map<String, Map<String, Integer>> fullGraph = getFullGraph();
-        if (fullGraph != null && !fullGraph.isEmpty()) {
-            String mostConnected = getMostConnectedPlayer(fullGraph);
-            if (mostConnected != null) {
-                int connections = fullGraph.get(mostConnected).size();
-                System.out.println("Most connected player overall: " + mostConnected +
-                        " (" + connections + " unique teammates)");
-            }
+        // Most connected player overall (degrees in the full graph, left over from the sweep)
+        String mostConnected = sweep.getMostConnectedPlayer();
+        if (mostConnected != null) {
+            int connections = sweep.getConnections(mostConnected);
+            System.out.println("Most connected player overall: " + mostConnected +
+                    " (" + connections + " unique teammates)");
         }
         System.out.println();
     }
 
-    private String[] parseCSVLine(String line) {
-        List<String> result = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
-
-        for (char c : line.toCharArray()) {
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                result.add(current.toString().trim());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
-        }
-        result.add(current.toString().trim());
-
-        return result.toArray(new String[0]);
-    }
-
-    private int parseIntSafe(String value) {
-        try {
-            if (value == null || value.equals("N/A") || value.equals("-") || value.isEmpty()) {
-                return -1;
-            }
-            return Integer.parseInt(value.replaceAll("[^0-9-]", ""));
-        } catch (Exception e) {
-            return -1;
-        }
-    }
-
     // Data class for season statistics
         public record SeasonStats(int season, int nodesInSeason, int edgesInSeason, int cumulativeNodes,
                                   int cumulativeEdges, int newPlayers, int departedPlayers) {
@@ -0,0 +1,296 @@
+package graph;
+
+import model.Player;
+import model.TeamSeason;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/*
+ * Binary snapshot of a loaded EvolutionGraphBuilder, so that the next start can skip
+ * parsing the CSV files and rebuilding the edges.
+ *
+ * The file stores the player dictionary, player details, team-season rosters and the
+ * temporal edge arrays, preceded by a fingerprint (name, size, last-modified time) of every
+ * source CSV. The fingerprint is checked first with a plain read; only a matching snapshot is
+ * then read, through a read-only MappedByteBuffer, so a stale file is never left mapped while
+ * it gets replaced. Loading is not zero-copy: the builder keeps its data in heap arrays and
+ * maps, so every value is copied out of the mapping (each edge array exactly once) and the
+ * roster and season indexes are rebuilt. What the snapshot saves is the CSV parsing and the
+ * pair-by-pair edge insertion.
+ *
+ * Layout (big-endian): magic, version, fingerprint byte length, fingerprint,
+ * names, players, rosters, edges. Strings are an int byte length followed by UTF-8 bytes.
+ */
+public class EvolutionSnapshotCache {
+
+    private static final int MAGIC = 0x46475343; // "FGSC"
+    private static final int VERSION = 1;
+
+    private EvolutionSnapshotCache() {
+    }
+
+    /**
+     * Writes the builder state to the cache file (via a temporary file and an atomic rename).
+     *
+     * @param builder     a loaded builder
+     * @param sourceFiles the CSV files the builder was loaded from
+     * @param cacheFile   snapshot file to write
+     * @return true if the snapshot was written
+     */
+    public static boolean save(EvolutionGraphBuilder builder, File[] sourceFiles, Path cacheFile) {
+        Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+
+        try {
+            Path parent = cacheFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing graph cache " + cacheFile + ": " + e.getMessage());
+            return false;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(tempFile), 1 << 16))) {
+            byte[] fingerprint = fingerprint(sourceFiles);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(fingerprint.length);
+            out.write(fingerprint);
+
+            PlayerDictionary dictionary = builder.getDictionary();
+            out.writeInt(dictionary.size());
+            for (int id = 0; id < dictionary.size(); id++) {
+                writeString(out, dictionary.nameOf(id));
+            }
+
+            Map<String, Player> players = builder.getPlayers();
+            out.writeInt(players.size());
+            for (Player p : players.values()) {
+                out.writeInt(dictionary.idOf(p.getName()));
+                out.writeInt(p.getNumber());
+                out.writeInt(p.getAge());
+                writeString(out, p.getPosition());
+                writeString(out, p.getDateOfBirth());
+                writeString(out, p.getNationality());
+                writeString(out, p.getCurrentClub());
+                writeString(out, p.getHeight());
+                writeString(out, p.getFoot());
+                writeString(out, p.getJoined());
+                writeString(out, p.getSignedFrom());
+                writeString(out, p.getMarketValue());
+            }
+
+            Map<TeamSeason, BitSet> rosters = builder.getTeamSeasonRosters();
+            out.writeInt(rosters.size());
+            for (Map.Entry<TeamSeason, BitSet> entry : rosters.entrySet()) {
+                writeString(out, entry.getKey().team());
+                out.writeInt(entry.getKey().season());
+                int[] ids = entry.getValue().stream().toArray();
+                out.writeInt(ids.length);
+                for (int id : ids) {
+                    out.writeInt(id);
+                }
+            }
+
+            TemporalEdgeStore edges = builder.getEdgeStore();
+            int edgeCount = edges.edgeCount();
+            out.writeInt(edgeCount);
+            for (int e = 0; e < edgeCount; e++) {
+                out.writeLong(edges.key(e));
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                out.writeInt(edges.seasonCount(e));
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                for (int k = 0; k < edges.seasonCount(e); k++) {
+                    out.writeInt(edges.season(e, k));
+                }
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                for (int k = 0; k < edges.seasonCount(e); k++) {
+                    out.writeInt(edges.prefixSum(e, k));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing graph cache " + cacheFile + ": " + e.getMessage());
+            return false;
+        }
+
+        try {
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing graph cache " + cacheFile + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Restores an empty builder from the cache file, if the file exists and still matches the CSV files.
+     *
+     * @param builder     an empty builder to fill
+     * @param sourceFiles the CSV files currently in the data folder
+     * @param cacheFile   snapshot file to read
+     * @return true if the builder was restored; false if the cache is missing, stale or unreadable,
+     *         in which case the builder is left unchanged
+     */
+    public static boolean load(EvolutionGraphBuilder builder, File[] sourceFiles, Path cacheFile) {
+        if (!Files.isRegularFile(cacheFile) || builder.getDictionary().size() > 0) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+            readFully(channel, header);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return false;
+            }
+            byte[] expected = fingerprint(sourceFiles);
+            ByteBuffer stored = ByteBuffer.allocate(header.getInt());
+            readFully(channel, stored);
+            if (!Arrays.equals(stored.array(), expected)) {
+                return false;
+            }
+
+            long dataStart = channel.position();
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, dataStart, channel.size() - dataStart);
+
+            // Decode the whole snapshot first: a truncated or corrupt file fails here, before the builder is touched
+            int nameCount = buf.getInt();
+            String[] names = new String[nameCount];
+            for (int id = 0; id < nameCount; id++) {
+                names[id] = readString(buf);
+            }
+
+            int playerCount = buf.getInt();
+            Player[] details = new Player[playerCount];
+            for (int i = 0; i < playerCount; i++) {
+                String name = names[buf.getInt()];
+                int number = buf.getInt();
+                int age = buf.getInt();
+                String position = readString(buf);
+                String dateOfBirth = readString(buf);
+                details[i] = new Player(number, name, position, dateOfBirth, age,
+                        readString(buf), readString(buf), readString(buf), readString(buf),
+                        readString(buf), readString(buf), readString(buf));
+            }
+
+            int rosterCount = buf.getInt();
+            TeamSeason[] teamSeasons = new TeamSeason[rosterCount];
+            int[][] rosters = new int[rosterCount][];
+            for (int i = 0; i < rosterCount; i++) {
+                String team = readString(buf);
+                int season = buf.getInt();
+                teamSeasons[i] = new TeamSeason(team, season);
+                rosters[i] = checkIds(readInts(buf, buf.getInt()), nameCount);
+            }
+
+            int edgeCount = buf.getInt();
+            long[] keys = new long[edgeCount];
+            buf.asLongBuffer().get(keys);
+            buf.position(buf.position() + edgeCount * Long.BYTES);
+            int[] sizes = readInts(buf, edgeCount);
+
+            int total = 0;
+            for (int size : sizes) {
+                total = Math.addExact(total, size);
+            }
+            // Seasons and prefix sums of all edges, copied from the mapping straight into the per-edge arrays
+            IntBuffer allSeasons = buf.slice(buf.position(), total * Integer.BYTES).asIntBuffer();
+            IntBuffer allPrefix = buf.slice(buf.position() + total * Integer.BYTES, total * Integer.BYTES).asIntBuffer();
+            int[][] edgeSeasons = new int[edgeCount][];
+            int[][] edgePrefix = new int[edgeCount][];
+            for (int e = 0; e < edgeCount; e++) {
+                edgeSeasons[e] = new int[sizes[e]];
+                edgePrefix[e] = new int[sizes[e]];
+                allSeasons.get(edgeSeasons[e]);
+                allPrefix.get(edgePrefix[e]);
+            }
+
+            // Fully read: move it into the builder
+            PlayerDictionary dictionary = builder.getDictionary();
+            for (String name : names) {
+                dictionary.intern(name);
+            }
+            Map<String, Player> players = builder.getPlayers();
+            for (Player player : details) {
+                players.put(player.getName(), player);
+            }
+            for (int i = 0; i < rosterCount; i++) {
+                builder.registerRoster(teamSeasons[i], rosters[i]);
+            }
+            TemporalEdgeStore edges = builder.getEdgeStore();
+            for (int e = 0; e < edgeCount; e++) {
+                edges.restoreEdge(keys[e], edgeSeasons[e], edgePrefix[e], sizes[e]);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable graph cache " + cacheFile + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Name, size and last-modified time of every source file, in the given order
+    private static byte[] fingerprint(File[] files) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(files.length);
+            for (File file : files) {
+                writeString(out, file.getName());
+                out.writeLong(file.length());
+                out.writeLong(file.lastModified());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                throw new EOFException("truncated cache file");
+            }
+        }
+        target.flip();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "N/A").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Player IDs of a roster, which must all be in the dictionary
+    private static int[] checkIds(int[] ids, int nameCount) throws IOException {
+        for (int id : ids) {
+            if (id < 0 || id >= nameCount) {
+                throw new IOException("player ID " + id + " out of range");
+            }
+        }
+        return ids;
+    }
+
+    private static int[] readInts(ByteBuffer buf, int count) {
+        int[] values = new int[count];
+        buf.asIntBuffer().get(values);
+        buf.position(buf.position() + count * Integer.BYTES);
+        return values;
+    }
+}
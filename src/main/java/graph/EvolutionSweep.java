@@ -0,0 +1,113 @@
+package graph;
+
+import java.util.*;
+
+/*
+ * EvolutionSweep computes the per-season evolution statistics in one chronological pass.
+ * Instead of rebuilding a snapshot and a cumulative graph for every season, it keeps
+ * running node and edge counters and applies only the edges and rosters of each season.
+ */
+public class EvolutionSweep {
+
+    private final EvolutionGraphBuilder builder;
+
+    // Cumulative degree per player ID after the last applied season
+    private final int[] degrees;
+
+    public EvolutionSweep(EvolutionGraphBuilder builder) {
+        this.builder = builder;
+        this.degrees = new int[builder.getDictionary().size()];
+    }
+
+    /**
+     * Sweeps all seasons in ascending order.
+     *
+     * @return one {@link EvolutionGraphBuilder.SeasonStats} per season
+     */
+    public List<EvolutionGraphBuilder.SeasonStats> run() {
+        TemporalEdgeStore edgeStore = builder.getEdgeStore();
+
+        List<EvolutionGraphBuilder.SeasonStats> stats = new ArrayList<>();
+        int playerCount = degrees.length;
+        Arrays.fill(degrees, 0);
+
+        // seenInSeason[p] == season marks p as already counted for the current season
+        int[] seenInSeason = new int[playerCount];
+        Arrays.fill(seenInSeason, Integer.MIN_VALUE);
+
+        BitSet scratch = new BitSet(playerCount);
+        int cumulativeNodes = 0;
+        int cumulativeEdges = 0;
+
+        for (int season : builder.getAllSeasons()) {
+            IntList seasonEdges = edgeStore.edgesIn(season);
+            int nodesInSeason = 0;
+
+            for (int i = 0; i < seasonEdges.size(); i++) {
+                int edge = seasonEdges.get(i);
+                int a = edgeStore.playerA(edge);
+                int b = edgeStore.playerB(edge);
+
+                if (seenInSeason[a] != season) {
+                    seenInSeason[a] = season;
+                    nodesInSeason++;
+                }
+                if (seenInSeason[b] != season) {
+                    seenInSeason[b] = season;
+                    nodesInSeason++;
+                }
+
+                // First season of this edge: it enters the cumulative graph now
+                if (edgeStore.season(edge, 0) == season) {
+                    cumulativeEdges++;
+                    if (degrees[a]++ == 0) cumulativeNodes++;
+                    if (degrees[b]++ == 0) cumulativeNodes++;
+                }
+            }
+
+            BitSet current = builder.getSeasonRoster(season);
+            int newPlayers = countMissing(current, builder.getSeasonRoster(season - 1), scratch);
+            int departedPlayers = countMissing(current, builder.getSeasonRoster(season + 1), scratch);
+
+            stats.add(new EvolutionGraphBuilder.SeasonStats(
+                    season, nodesInSeason, seasonEdges.size(),
+                    cumulativeNodes, cumulativeEdges,
+                    newPlayers, departedPlayers
+            ));
+        }
+
+        return stats;
+    }
+
+    /**
+     * Returns the player with the most unique teammates over all swept seasons.
+     * Only valid after {@link #run()}.
+     *
+     * @return player name, or null if there are no edges
+     */
+    public String getMostConnectedPlayer() {
+        int best = -1;
+        for (int p = 0; p < degrees.length; p++) {
+            if (degrees[p] > 0 && (best < 0 || degrees[p] > degrees[best])) {
+                best = p;
+            }
+        }
+        return best >= 0 ? builder.getDictionary().nameOf(best) : null;
+    }
+
+    /**
+     * @return number of unique teammates of a player over all swept seasons
+     */
+    public int getConnections(String playerName) {
+        int id = builder.getDictionary().idOf(playerName);
+        return id >= 0 ? degrees[id] : 0;
+    }
+
+    // Number of players in 'from' that are not in 'other', computed word by word in a reused bitset
+    private static int countMissing(BitSet from, BitSet other, BitSet scratch) {
+        scratch.clear();
+        scratch.or(from);
+        scratch.andNot(other);
+        return scratch.cardinality();
+    }
+}
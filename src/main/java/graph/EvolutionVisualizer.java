@@ -31,6 +31,9 @@ public class EvolutionVisualizer {
     private final List<Integer> seasons;
     private volatile boolean isAnimating = false;
 
+    // Set while controls are rebuilt after a data change, so their listeners do not redraw
+    private boolean refreshing = false;
+
     // Filter settings
     private String selectedTeam = "All Teams";
     private int minWeight = 1;
@@ -99,15 +102,10 @@ public class EvolutionVisualizer {
         seasonSlider.setMinorTickSpacing(1);
         seasonSlider.setPaintTicks(true);
         seasonSlider.setPaintLabels(true);
-
-        Hashtable<Integer, JLabel> labelTable = new Hashtable<>();
-        for (int i = 0; i < seasons.size(); i += 5) {
-            labelTable.put(i, new JLabel(String.valueOf(seasons.get(i))));
-        }
-        seasonSlider.setLabelTable(labelTable);
+        seasonSlider.setLabelTable(createSeasonLabels());
 
         seasonSlider.addChangeListener(e -> {
-            if (!seasonSlider.getValueIsAdjusting()) {
+            if (!seasonSlider.getValueIsAdjusting() && !refreshing) {
                 currentSeason = seasons.get(seasonSlider.getValue());
                 updateGraphForSeason(currentSeason);
             }
@@ -122,14 +120,9 @@ public class EvolutionVisualizer {
 
         // Team filter
         filterPanel.add(new JLabel("Team:"));
-        String[] teamOptions = new String[dataBuilder.getAllTeams().size() + 1];
-        teamOptions[0] = "All Teams";
-        int i = 1;
-        for (String team : dataBuilder.getAllTeams()) {
-            teamOptions[i++] = team;
-        }
-        teamFilter = new JComboBox<>(teamOptions);
+        teamFilter = new JComboBox<>(createTeamOptions());
         teamFilter.addActionListener(e -> {
+            if (refreshing) return;
             selectedTeam = (String) teamFilter.getSelectedItem();
             updateGraphForSeason(currentSeason);
         });
@@ -195,6 +188,60 @@ public class EvolutionVisualizer {
         return buttonPanel;
     }
 
+    private Hashtable<Integer, JLabel> createSeasonLabels() {
+        Hashtable<Integer, JLabel> labelTable = new Hashtable<>();
+        for (int i = 0; i < seasons.size(); i += 5) {
+            labelTable.put(i, new JLabel(String.valueOf(seasons.get(i))));
+        }
+        return labelTable;
+    }
+
+    private String[] createTeamOptions() {
+        String[] teamOptions = new String[dataBuilder.getAllTeams().size() + 1];
+        teamOptions[0] = "All Teams";
+        int i = 1;
+        for (String team : dataBuilder.getAllTeams()) {
+            teamOptions[i++] = team;
+        }
+        return teamOptions;
+    }
+
+    /*
+     * Re-reads seasons and teams from the builder after its data changed (e.g. a team-season
+     * file was reloaded) and redraws the current season. Must run on the Swing event thread.
+     */
+    public void refresh() {
+        seasons.clear();
+        seasons.addAll(dataBuilder.getAllSeasons());
+        if (seasons.isEmpty() || seasonSlider == null) {
+            return;
+        }
+
+        // Stay on the current season if it still exists, otherwise move to the nearest later one
+        int index = Collections.binarySearch(seasons, currentSeason);
+        if (index < 0) {
+            index = Math.min(-index - 1, seasons.size() - 1);
+        }
+        currentSeason = seasons.get(index);
+
+        refreshing = true;
+        try {
+            seasonSlider.setMaximum(seasons.size() - 1);
+            seasonSlider.setLabelTable(createSeasonLabels());
+            seasonSlider.setValue(index);
+
+            teamFilter.setModel(new DefaultComboBoxModel<>(createTeamOptions()));
+            if (!selectedTeam.equals("All Teams") && !dataBuilder.getAllTeams().contains(selectedTeam)) {
+                selectedTeam = "All Teams";
+            }
+            teamFilter.setSelectedItem(selectedTeam);
+        } finally {
+            refreshing = false;
+        }
+
+        updateGraphForSeason(currentSeason);
+    }
+
     private void navigateSeason(int direction) {
         int currentIndex = seasons.indexOf(currentSeason);
         int newIndex = currentIndex + direction;
@@ -214,13 +261,20 @@ public class EvolutionVisualizer {
             isAnimating = true;
             button.setText("II Stop");
 
-            new Thread(() -> {
-                int startIndex = seasons.indexOf(currentSeason);
+            // Seasons to play, fixed at the start: refresh() may change the list while frames are pending
+            List<Integer> frames = List.copyOf(seasons);
+            int startIndex = frames.indexOf(currentSeason);
 
-                for (int i = startIndex; i < seasons.size() && isAnimating; i++) {
-                    final int seasonIndex = i;
+            new Thread(() -> {
+                for (int i = Math.max(0, startIndex); i < frames.size() && isAnimating; i++) {
+                    final int frameSeason = frames.get(i);
                     SwingUtilities.invokeLater(() -> {
-                        currentSeason = seasons.get(seasonIndex);
+                        // Skip seasons whose data was removed since the animation started
+                        int seasonIndex = seasons.indexOf(frameSeason);
+                        if (seasonIndex < 0) {
+                            return;
+                        }
+                        currentSeason = frameSeason;
                         seasonSlider.setValue(seasonIndex);
                         updateGraphForSeason(currentSeason);
                     });
@@ -421,9 +475,10 @@ public class EvolutionVisualizer {
         """.formatted(NODE_COLOR_NORMAL, EDGE_COLOR_NORMAL));
     }
 
-    public static void visualize(EvolutionGraphBuilder builder) {
+    public static EvolutionVisualizer visualize(EvolutionGraphBuilder builder) {
         EvolutionVisualizer visualizer = new EvolutionVisualizer(builder);
         visualizer.show();
+        return visualizer;
     }
 
 
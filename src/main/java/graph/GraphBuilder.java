@@ -1,8 +1,11 @@
 package graph;
 
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
 
+import data.CsvTokenizer;
+import data.RosterArchive;
 import lombok.Getter;
 import model.Player;
 
@@ -13,8 +16,14 @@ import model.Player;
  * <p>
  * This version is adapted for the project "Evolution of Football Teams".
  * Data format comes from FootBallTeamsGraphs.java, which saves team rosters as CSV files.
+ * <p>
+ * Player names are interned into a {@link PlayerDictionary} while loading. Only the
+ * player <-> team-season incidence is kept ({@link BipartiteCoPlayGraph}); the edges
+ * are projected and frozen into a {@link CsrGraph} on first access.
+ * <p>
+ * A builder can also be a static view over an {@link EvolutionGraphBuilder} that already
+ * holds the data, so the CSV files are loaded only once for both kinds of graph.
  */
-@Getter
 public class GraphBuilder {
 
     /**
@@ -22,14 +31,51 @@ public class GraphBuilder {
      *  Returns all players in the graph.
      */
     // Player registry (player name -> Player object)
-    private final Map<String, Player> players = new HashMap<>();
+    @Getter
+    private final Map<String, Player> players;
+
+    // Player name <-> int ID
+    private final PlayerDictionary dictionary;
+
+    // Team-season rosters as player IDs; co-play edges are derived from it on demand
+    private final BipartiteCoPlayGraph coPlay;
+
+    // Frozen adjacency, rebuilt lazily after new rosters are added
+    private CsrGraph graph;
+
+    // For a view: the dataset's modification count the frozen graph was built at
+    private long graphVersion = -1;
+
+    // Shared dataset this builder is a view of, or null if it loads its own files
+    private final EvolutionGraphBuilder dataset;
 
     /**
-     * -- GETTER --
-     *  Returns adjacency map (edges).
+     * Creates an empty builder that loads its own data with {@link #loadAndBuildFromFolder(String)}.
      */
-    // Weighted adjacency map: player -> (teammate -> number of shared seasons)
-    private final Map<String, Map<String, Integer>> edges = new HashMap<>();
+    public GraphBuilder() {
+        this.players = new HashMap<>();
+        this.dictionary = new PlayerDictionary();
+        this.coPlay = new BipartiteCoPlayGraph(dictionary);
+        this.dataset = null;
+    }
+
+    /**
+     * Creates a static view over data already loaded by an {@link EvolutionGraphBuilder},
+     * without reading the CSV files again. The graph is the last cumulative view of the
+     * dataset, and players and player IDs are shared with it, so later changes to the
+     * dataset show up here too (the frozen graph is rebuilt once per change, not per call).
+     * <p>
+     * The view reads the dataset without locking, so it must be used on the thread that
+     * changes the dataset: the EDT once a {@link TeamFolderWatcher} applies changes there.
+     *
+     * @param dataset the loaded temporal dataset
+     */
+    public GraphBuilder(EvolutionGraphBuilder dataset) {
+        this.players = dataset.getPlayers();
+        this.dictionary = dataset.getDictionary();
+        this.coPlay = null;
+        this.dataset = dataset;
+    }
 
     /**
      * Loads multiple team-season CSV files and builds the co-play graph.
@@ -37,22 +83,34 @@ public class GraphBuilder {
      * @param folderPath the directory containing CSV files from FootBallTeamsGraphs
      */
     public void loadAndBuildFromFolder(String folderPath) {
-        File folder = new File(folderPath);
-        if (!folder.exists() || !folder.isDirectory()) {
-            System.err.println("Invalid folder path: " + folderPath);
+        loadAndBuildFromFolder(folderPath, 1);
+    }
+
+    /**
+     * Loads team-season CSV files on several threads and builds the co-play graph.
+     * Files are parsed concurrently and merged in file-name order, so the graph
+     * is identical to the one built by a sequential load.
+     *
+     * @param folderPath  the directory containing CSV files from FootBallTeamsGraphs
+     * @param parallelism number of parsing threads (1 = sequential)
+     */
+    public void loadAndBuildFromFolder(String folderPath, int parallelism) {
+        if (dataset != null) {
+            System.err.println("This graph is a view of an already loaded dataset; load the files there instead");
             return;
         }
 
-        File[] files = folder.listFiles((dir, name) -> name.endsWith(".csv"));
-        if (files == null || files.length == 0) {
-            System.err.println("No CSV files found in " + folderPath);
+        File[] files = ParallelIngest.planCsvFiles(folderPath);
+        if (files == null) {
             return;
         }
 
         System.out.println("Building co-play graph from " + files.length + " team-season files...\n");
 
-        for (File file : files) {
-            processTeamFile(file);
+        for (List<String> playerNames : ParallelIngest.parseAll(files, this::readTeamFile, parallelism)) {
+            if (playerNames != null) {
+                addTeamRoster(playerNames);
+            }
         }
 
         System.out.println("Graph built successfully!");
@@ -61,87 +119,174 @@ public class GraphBuilder {
     }
 
     /**
-     * Processes one team CSV (one team in one season) and adds co-play relationships.
+     * Loads all rosters of a single roster archive and builds the co-play graph.
+     * The archive is read in one pass; rosters are parsed on several threads while it is read.
      *
-     * @param csvFile the team-season CSV file
+     * @param archiveFile roster archive written by {@link RosterArchive#write}
+     * @param parallelism number of parsing threads (1 = sequential)
      */
-    private void processTeamFile(File csvFile) {
-        List<String> playerNames = new ArrayList<>();
+    public void loadAndBuildFromArchive(Path archiveFile, int parallelism) {
+        if (dataset != null) {
+            System.err.println("This graph is a view of an already loaded dataset; load the files there instead");
+            return;
+        }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(csvFile))) {
-            String line;
-            boolean isHeader = true;
+        List<List<String>> parsed;
+        try {
+            int rosterCount = RosterArchive.readTableOfContents(archiveFile).size();
+            System.out.println("Building co-play graph from " + rosterCount + " archived team-seasons...\n");
 
-            while ((line = br.readLine()) != null) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
+            parsed = ParallelIngest.parseArchive(archiveFile, teamSeason -> true, roster -> {
+                try {
+                    return readRoster(roster.open(), roster.entry().fileName());
+                } catch (IOException e) {
+                    System.err.println("Error reading " + roster.entry().fileName() + ": " + e.getMessage());
+                    return null;
                 }
+            }, parallelism);
+        } catch (IOException e) {
+            System.err.println("Error reading roster archive " + archiveFile + ": " + e.getMessage());
+            return;
+        }
+        for (List<String> playerNames : parsed) {
+            if (playerNames != null) {
+                addTeamRoster(playerNames);
+            }
+        }
+
+        System.out.println("Graph built successfully!");
+        System.out.println("Players: " + players.size());
+        System.out.println("Edges: " + countEdges());
+    }
 
-                String[] parts = line.split(",");
-                if (parts.length < 2) continue;
+    /**
+     * Reads the player names of one team CSV (one team in one season).
+     * Does not touch the builder state, so files can be read in parallel.
+     *
+     * @param csvFile the team-season CSV file
+     * @return player names in file order, or null if the file could not be read
+     */
+    private List<String> readTeamFile(File csvFile) {
+        try {
+            return readRoster(new FileInputStream(csvFile), csvFile.getName());
+        } catch (FileNotFoundException e) {
+            System.err.println("Error reading " + csvFile.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
 
-                String name = parts[1].trim(); // column "Name"
-                if (name.isEmpty()) continue;
+    /**
+     * Reads the player names of one roster from CSV content; the stream is closed afterwards.
+     *
+     * @param csvContent the CSV content of one team-season
+     * @param sourceName file name used in error messages
+     * @return player names in file order, or null if the content could not be read
+     */
+    private List<String> readRoster(InputStream csvContent, String sourceName) {
+        List<String> playerNames = new ArrayList<>();
 
-                playerNames.add(name);
+        try (CsvTokenizer csv = new CsvTokenizer(csvContent)) {
+            // Skip header
+            csv.nextRecord();
 
-                // create basic Player if not present
-                players.putIfAbsent(name, new Player(
-                        -1, name, "N/A", "N/A", -1,
-                        "N/A", "N/A", "N/A", "N/A", "N/A", "N/A", "N/A"));
+            while (csv.nextRecord()) {
+                if (csv.fieldCount() < 2 || csv.fieldIsEmpty(1)) continue;
+
+                playerNames.add(csv.field(1)); // column "Name"
             }
         } catch (IOException e) {
-            System.err.println("Error reading " + csvFile.getName() + ": " + e.getMessage());
-            return;
+            System.err.println("Error reading " + sourceName + ": " + e.getMessage());
+            return null;
+        }
+        return playerNames;
+    }
+
+    /**
+     * Adds one team-season roster and its co-play relationships.
+     *
+     * @param playerNames names of the players in the roster
+     */
+    private void addTeamRoster(List<String> playerNames) {
+        for (String name : playerNames) {
+            // create basic Player if not present
+            players.putIfAbsent(name, new Player(
+                    -1, name, "N/A", "N/A", -1,
+                    "N/A", "N/A", "N/A", "N/A", "N/A", "N/A", "N/A"));
         }
 
-        // connect all players from this team-season as teammates
-        for (int i = 0; i < playerNames.size(); i++) {
-            for (int j = i + 1; j < playerNames.size(); j++) {
-                addEdge(playerNames.get(i), playerNames.get(j));
-                addEdge(playerNames.get(j), playerNames.get(i));
+        // all players from this team-season are teammates; edges are derived when the graph is frozen
+        int[] roster = playerNames.stream()
+                .mapToInt(dictionary::intern)
+                .distinct()
+                .toArray();
+        coPlay.addRoster(roster);
+        graph = null;
+    }
+
+    /**
+     * Returns the frozen co-play graph, projecting it from the loaded rosters if needed.
+     */
+    public CsrGraph getGraph() {
+        if (dataset != null) {
+            if (graph == null || graphVersion != dataset.getModificationCount()) {
+                graph = dataset.getFullCsrGraph();
+                graphVersion = dataset.getModificationCount();
             }
+            return graph;
         }
+        if (graph == null) {
+            graph = coPlay.project();
+        }
+        return graph;
     }
 
     /**
-     * Adds or increments a co-play edge between two players.
+     * Returns the lazy player <-> team-season model, for weight, teammate and degree
+     * queries that should not materialize the whole graph.
+     * For a view of a shared dataset, the model is built from the dataset's current rosters.
      */
-    private void addEdge(String playerA, String playerB) {
-        edges.computeIfAbsent(playerA, k -> new HashMap<>())
-                .merge(playerB, 1, Integer::sum);
+    public BipartiteCoPlayGraph getCoPlay() {
+        if (dataset != null) {
+            BipartiteCoPlayGraph rosters = new BipartiteCoPlayGraph(dictionary);
+            for (BitSet roster : dataset.getTeamSeasonRosters().values()) {
+                rosters.addRoster(roster.stream().toArray());
+            }
+            return rosters;
+        }
+        return coPlay;
+    }
+
+    /**
+     * Returns a read-only adjacency view (edges): player -> (teammate -> number of shared seasons).
+     */
+    public Map<String, Map<String, Integer>> getEdges() {
+        return getGraph().asMap();
     }
 
     /**
      * Counts total unique undirected edges.
      */
     private int countEdges() {
-        Set<String> uniqueEdges = new HashSet<>();
-        for (String a : edges.keySet()) {
-            for (String b : edges.get(a).keySet()) {
-                String edgeKey = a.compareTo(b) < 0 ? a + "-" + b : b + "-" + a;
-                uniqueEdges.add(edgeKey);
-            }
-        }
-        return uniqueEdges.size();
+        return getGraph().edgeCount();
     }
 
     /**
      * Prints a summary of the graph.
      */
     public void printSummary() {
+        CsrGraph csr = getGraph();
+
         System.out.println("\n=== GRAPH SUMMARY ===");
         System.out.println("Players (vertices): " + players.size());
-        System.out.println("Unique edges: " + countEdges());
+        System.out.println("Unique edges: " + csr.edgeCount());
 
         String mostConnected = null;
         int maxConnections = 0;
-        for (Map.Entry<String, Map<String, Integer>> entry : edges.entrySet()) {
-            int connections = entry.getValue().size();
+        for (int player = 0; player < csr.nodeCount(); player++) {
+            int connections = csr.degree(player);
             if (connections > maxConnections) {
                 maxConnections = connections;
-                mostConnected = entry.getKey();
+                mostConnected = dictionary.nameOf(player);
             }
         }
 
@@ -0,0 +1,79 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Growable list of primitive ints, used for edge and player ID lists
+ * where a {@code List<Integer>} would box every element.
+ */
+public class IntList {
+
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this(8);
+    }
+
+    public IntList(int capacity) {
+        values = new int[Math.max(1, capacity)];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * Removes the first occurrence of a value, keeping the order of the other elements.
+     *
+     * @return true if the value was found
+     */
+    public boolean removeValue(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every element whose value is set in the bitset, keeping the order of the
+     * other elements, in a single pass.
+     */
+    public void removeAll(BitSet set) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!set.get(values[i])) {
+                values[kept++] = values[i];
+            }
+        }
+        size = kept;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Copy of the used part of the list
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
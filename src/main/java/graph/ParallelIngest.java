@@ -0,0 +1,232 @@
+package graph;
+
+import data.DatasetManifest;
+import data.RosterArchive;
+import model.TeamSeason;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/*
+ * Fork-join helper shared by the graph builders for loading team-season files.
+ * Files are parsed concurrently into per-file partial results, which are then
+ * reduced by concatenation in file-name order. The builders apply the partials
+ * in that order, so a parallel load yields exactly the same graph (including
+ * player IDs) as a sequential one.
+ */
+final class ParallelIngest {
+
+    // Below this many files a task parses on its own instead of splitting further
+    private static final int SPLIT_THRESHOLD = 2;
+
+    private ParallelIngest() {
+    }
+
+    /**
+     * Lists the CSV files of a folder, sorted by name so that every load
+     * processes them in the same order.
+     *
+     * @return the sorted files, or null if the folder is invalid or has no CSV files
+     */
+    static File[] listCsvFiles(String folderPath) {
+        File folder = new File(folderPath);
+        if (!folder.exists() || !folder.isDirectory()) {
+            System.err.println("Invalid folder path: " + folderPath);
+            return null;
+        }
+
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(".csv"));
+        if (files == null || files.length == 0) {
+            System.err.println("No CSV files found in " + folderPath);
+            return null;
+        }
+
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        return files;
+    }
+
+    /**
+     * Plans a load of team-season files: from the folder's {@link DatasetManifest} if it has one
+     * (first synchronized with the folder, so files added, changed or deleted since it was
+     * written are planned as they are now), otherwise from a directory listing with team and
+     * season taken from each file name.
+     *
+     * @return entries sorted by file name (rows and checksum are unknown without a manifest),
+     * or null if the folder is invalid or has no team-season files
+     */
+    static List<DatasetManifest.Entry> planTeamFiles(String folderPath) {
+        DatasetManifest manifest = DatasetManifest.readSynchronized(Path.of(folderPath));
+        if (manifest != null && manifest.size() > 0) {
+            return new ArrayList<>(manifest.entries());
+        }
+
+        File[] files = listCsvFiles(folderPath);
+        if (files == null) {
+            return null;
+        }
+        List<DatasetManifest.Entry> plan = new ArrayList<>(files.length);
+        for (File file : files) {
+            TeamSeason teamSeason = DatasetManifest.parseFileName(file.getName());
+            if (teamSeason == null) {
+                System.err.println("Cannot parse filename: " + file.getName().replace(".csv", ""));
+                continue;
+            }
+            plan.add(new DatasetManifest.Entry(teamSeason, file.getName(), -1, 0));
+        }
+        return plan;
+    }
+
+    /**
+     * Lists the CSV files to load: the files of the folder's {@link DatasetManifest} if it has one
+     * (synchronized with the folder first), otherwise all CSV files of the folder.
+     *
+     * @return the files sorted by name, or null if the folder is invalid or has no CSV files
+     */
+    static File[] planCsvFiles(String folderPath) {
+        DatasetManifest manifest = DatasetManifest.readSynchronized(Path.of(folderPath));
+        if (manifest == null || manifest.size() == 0) {
+            return listCsvFiles(folderPath);
+        }
+        return manifest.entries().stream()
+                .map(entry -> new File(folderPath, entry.fileName()))
+                .toArray(File[]::new);
+    }
+
+    /**
+     * Parses every file and returns the partial results in the same order as the files.
+     * The parser must not touch shared state; it may return null for unreadable files.
+     *
+     * @param files       files to parse
+     * @param parser      per-file parser
+     * @param parallelism number of worker threads; 1 parses on the calling thread
+     * @return one result per file, in file order
+     */
+    static <T> List<T> parseAll(File[] files, Function<File, T> parser, int parallelism) {
+        return parseAll(Arrays.asList(files), parser, parallelism);
+    }
+
+    /**
+     * Same as {@link #parseAll(File[], Function, int)} for inputs that are not files,
+     * such as rosters read from an archive.
+     */
+    static <S, T> List<T> parseAll(List<S> inputs, Function<S, T> parser, int parallelism) {
+        if (parallelism <= 1 || inputs.size() < SPLIT_THRESHOLD) {
+            return new ParseTask<>(inputs, 0, inputs.size(), parser).parseRange();
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new ParseTask<>(inputs, 0, inputs.size(), parser));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parses the rosters of an archive that the selector accepts, while the archive is being
+     * read: each roster is handed to a worker as soon as it is read, and at most a few rosters
+     * per worker wait in memory, instead of reading every roster before parsing starts.
+     *
+     * @param archiveFile archive to read
+     * @param selector    which team-seasons to parse
+     * @param parser      per-roster parser, as for {@link #parseAll(List, Function, int)}
+     * @param parallelism number of worker threads; 1 parses on the calling thread
+     * @return one result per selected roster, in archive order
+     */
+    static <T> List<T> parseArchive(Path archiveFile, Predicate<TeamSeason> selector,
+                                    Function<RosterArchive.Roster, T> parser, int parallelism) throws IOException {
+        List<T> results = new ArrayList<>();
+        if (parallelism <= 1) {
+            RosterArchive.forEach(archiveFile, selector, roster -> results.add(parser.apply(roster)));
+            return results;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        Semaphore waiting = new Semaphore(parallelism * 2);
+        List<Future<T>> parsed = new ArrayList<>();
+        try {
+            RosterArchive.forEach(archiveFile, selector, roster -> {
+                waiting.acquireUninterruptibly();
+                parsed.add(pool.submit(() -> {
+                    try {
+                        return parser.apply(roster);
+                    } finally {
+                        waiting.release();
+                    }
+                }));
+            });
+
+            for (Future<T> result : parsed) {
+                results.add(result.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading " + archiveFile);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Never serialized: tasks only live inside one pool invocation
+    @SuppressWarnings("serial")
+    private static class ParseTask<S, T> extends RecursiveTask<List<T>> {
+        private final List<S> inputs;
+        private final int from;
+        private final int to;
+        private final Function<S, T> parser;
+
+        ParseTask(List<S> inputs, int from, int to, Function<S, T> parser) {
+            this.inputs = inputs;
+            this.from = from;
+            this.to = to;
+            this.parser = parser;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                return parseRange();
+            }
+
+            int mid = (from + to) >>> 1;
+            ParseTask<S, T> left = new ParseTask<>(inputs, from, mid, parser);
+            ParseTask<S, T> right = new ParseTask<>(inputs, mid, to, parser);
+            left.fork();
+            List<T> rightResult = right.compute();
+            List<T> result = left.join();
+
+            // Deterministic reduction: left partials always precede right partials
+            result.addAll(rightResult);
+            return result;
+        }
+
+        List<T> parseRange() {
+            List<T> result = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                result.add(parser.apply(inputs.get(i)));
+            }
+            return result;
+        }
+    }
+}
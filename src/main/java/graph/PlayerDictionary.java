@@ -0,0 +1,65 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PlayerDictionary interns player names into dense integer IDs.
+ * Every name is stored exactly once; graph structures then refer to players
+ * by their ID (0, 1, 2, ...) instead of repeating the name String.
+ */
+public class PlayerDictionary {
+
+    // Name -> ID lookup
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    // ID -> name lookup (index is the ID)
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * Returns the ID of a player, assigning the next free ID if the name is new.
+     *
+     * @param name player name
+     * @return the player's ID
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        int newId = names.size();
+        ids.put(name, newId);
+        names.add(name);
+        return newId;
+    }
+
+    /**
+     * @param name player name
+     * @return the player's ID, or -1 if the name was never interned
+     */
+    public int idOf(Object name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * @param id player ID
+     * @return the player's name
+     */
+    public String nameOf(int id) {
+        return names.get(id);
+    }
+
+    // Forgets every name; IDs are assigned from 0 again
+    public void clear() {
+        ids.clear();
+        names.clear();
+    }
+
+    // Number of interned players
+    public int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,195 @@
+package graph;
+
+import model.Player;
+import model.TeamSeason;
+import model.TeamSeasonFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/*
+ * RosterPipeline streams scraped rosters into an EvolutionGraphBuilder while they are still
+ * being downloaded, instead of writing every CSV file first and loading them afterwards.
+ *
+ * Every submitted roster is handed to the sinks added by the caller (e.g. the CSV writer) at
+ * once, and to the graph stage, which applies it to the builder, only after every sink accepted
+ * it. A roster a sink fails on (say its CSV file cannot be written) never reaches the graph, so
+ * the graph holds the same rosters as the files it would be loaded from. Each stage has its own
+ * bounded queue and thread; submit() blocks while a stage's queue is full, so producers slow
+ * down to the pace of the slowest stage instead of piling rosters up in memory.
+ *
+ * Graph updates and listener calls run on the given executor and the graph stage waits for
+ * each one (e.g. SwingUtilities::invokeLater when a visualizer reads the builder, or
+ * Runnable::run to update on the stage thread), so the builder is never changed concurrently.
+ */
+public class RosterPipeline {
+
+    /**
+     * Consumer stage of the pipeline.
+     */
+    @FunctionalInterface
+    public interface RosterSink {
+        void accept(TeamSeason teamSeason, List<Player> players) throws Exception;
+    }
+
+    // pendingSinks counts the sinks still to accept the roster; failed is set when one of them fails
+    private record Roster(TeamSeason teamSeason, List<Player> players, AtomicInteger pendingSinks,
+                          AtomicBoolean failed) {
+    }
+
+    // Queued after the last roster to stop a stage
+    private static final Roster END = new Roster(null, List.of(), new AtomicInteger(), new AtomicBoolean());
+
+    private final EvolutionGraphBuilder builder;
+    private final TeamSeasonFilter filter;
+    private final int queueCapacity;
+    private final Executor updateExecutor;
+    private final List<Consumer<TeamSeason>> listeners = new CopyOnWriteArrayList<>();
+
+    private final BlockingQueue<Roster> graphQueue;
+    private Thread graphThread;
+
+    private final List<String> sinkNames = new ArrayList<>();
+    private final List<RosterSink> sinks = new ArrayList<>();
+    private final List<BlockingQueue<Roster>> queues = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    /**
+     * @param builder        builder the rosters are applied to
+     * @param filter         team-seasons to apply to the builder; the sinks receive every roster
+     * @param queueCapacity  rosters each stage may have waiting before submit() blocks
+     * @param updateExecutor executor that applies the rosters and notifies the listeners
+     */
+    public RosterPipeline(EvolutionGraphBuilder builder, TeamSeasonFilter filter, int queueCapacity,
+                          Executor updateExecutor) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1");
+        }
+        this.builder = builder;
+        this.filter = filter;
+        this.queueCapacity = queueCapacity;
+        this.updateExecutor = updateExecutor;
+        this.graphQueue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Adds a stage that receives every roster on its own thread; the graph is updated with a roster
+     * only once every sink accepted it without an exception. Must be called before {@link #start()}.
+     */
+    public void addSink(String name, RosterSink sink) {
+        if (graphThread != null) {
+            throw new IllegalStateException("pipeline already started");
+        }
+        sinkNames.add(name);
+        sinks.add(sink);
+        queues.add(new ArrayBlockingQueue<>(queueCapacity));
+    }
+
+    // Registers a callback that runs after each roster applied to the builder
+    public void addListener(Consumer<TeamSeason> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts one thread per stage.
+     */
+    public void start() {
+        graphThread = new Thread(() -> runStage(this::applyToGraph, graphQueue, false), "roster-pipeline-graph");
+        graphThread.setDaemon(true);
+        graphThread.start();
+        for (int i = 0; i < sinks.size(); i++) {
+            RosterSink sink = sinks.get(i);
+            BlockingQueue<Roster> queue = queues.get(i);
+            Thread thread = new Thread(() -> runStage(sink, queue, true), sinkNames.get(i));
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Hands a roster to every sink (or straight to the graph stage if there are none), waiting
+     * while a stage's queue is full. Safe to call from several threads.
+     */
+    public void submit(TeamSeason teamSeason, List<Player> players) throws InterruptedException {
+        Roster roster = new Roster(teamSeason, List.copyOf(players),
+                new AtomicInteger(queues.size()), new AtomicBoolean());
+        if (queues.isEmpty()) {
+            graphQueue.put(roster);
+        }
+        for (BlockingQueue<Roster> queue : queues) {
+            queue.put(roster);
+        }
+    }
+
+    /**
+     * Waits until every stage has processed every submitted roster, then stops the stages.
+     * No roster may be submitted afterwards.
+     */
+    public void finish() throws InterruptedException {
+        for (BlockingQueue<Roster> queue : queues) {
+            queue.put(END);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // The sinks have passed on their last rosters
+        graphQueue.put(END);
+        graphThread.join();
+    }
+
+    private void runStage(RosterSink sink, BlockingQueue<Roster> queue, boolean forwardToGraph) {
+        try {
+            while (true) {
+                Roster roster = queue.take();
+                if (roster == END) {
+                    return;
+                }
+                try {
+                    sink.accept(roster.teamSeason(), roster.players());
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    roster.failed().set(true);
+                    System.err.println(Thread.currentThread().getName() + ": error while processing "
+                            + roster.teamSeason() + ": " + e.getMessage()
+                            + (forwardToGraph ? " (not added to the graph)" : ""));
+                }
+                // The last sink to finish a roster hands it to the graph, unless a sink failed
+                if (forwardToGraph && roster.pendingSinks().decrementAndGet() == 0 && !roster.failed().get()) {
+                    graphQueue.put(roster);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Pipeline stopped
+        }
+    }
+
+    private void applyToGraph(TeamSeason teamSeason, List<Player> players) throws Exception {
+        if (!filter.matches(teamSeason)) {
+            return;
+        }
+
+        FutureTask<Void> update = new FutureTask<>(() -> {
+            builder.applyRoster(teamSeason, players);
+            for (Consumer<TeamSeason> listener : listeners) {
+                listener.accept(teamSeason);
+            }
+        }, null);
+        updateExecutor.execute(update);
+        try {
+            update.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package graph;
+
+import model.TeamSeason;
+import model.TeamSeasonFilter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/*
+ * TeamFolderWatcher keeps a loaded EvolutionGraphBuilder in sync with its data folder.
+ * A background thread watches the folder with a WatchService; every added, changed or
+ * deleted team-season CSV is applied to the builder on its own (old edges retracted first),
+ * instead of reloading the whole folder.
+ *
+ * Events are collected until the folder has been quiet for a short while, so a file that is
+ * still being written is applied once, after the last write. Updates and listener calls run
+ * on the given executor (e.g. SwingUtilities::invokeLater when a visualizer reads the builder).
+ */
+public class TeamFolderWatcher implements Closeable {
+
+    // Time without new events before a batch of changes is applied
+    private static final long QUIET_PERIOD_MS = 500;
+
+    private final EvolutionGraphBuilder builder;
+    private final Path folder;
+    private final Executor updateExecutor;
+    private final TeamSeasonFilter filter;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private WatchService watchService;
+    private Thread watchThread;
+
+    /**
+     * @param builder        builder already loaded from the folder
+     * @param folderPath     folder with the team-season CSV files
+     * @param updateExecutor executor that applies the updates and notifies the listeners
+     */
+    public TeamFolderWatcher(EvolutionGraphBuilder builder, String folderPath, Executor updateExecutor) {
+        this(builder, folderPath, TeamSeasonFilter.ALL, updateExecutor);
+    }
+
+    /**
+     * @param builder        builder already loaded from the folder
+     * @param folderPath     folder with the team-season CSV files
+     * @param filter         the filter the builder was loaded with; other files are ignored
+     * @param updateExecutor executor that applies the updates and notifies the listeners
+     */
+    public TeamFolderWatcher(EvolutionGraphBuilder builder, String folderPath, TeamSeasonFilter filter,
+                             Executor updateExecutor) {
+        this.builder = builder;
+        this.folder = Path.of(folderPath);
+        this.filter = filter;
+        this.updateExecutor = updateExecutor;
+    }
+
+    // Registers a callback that runs after each applied batch of changes
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts watching the folder on a daemon thread.
+     */
+    public void start() throws IOException {
+        watchService = folder.getFileSystem().newWatchService();
+        folder.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+        watchThread = new Thread(this::watchLoop, "teams-folder-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        System.out.println("Watching " + folder + " for team-season file changes");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+
+                // File names in order of their first event
+                Set<String> changed = new LinkedHashSet<>();
+                while (key != null) {
+                    collectChanges(key, changed);
+                    if (!key.reset()) {
+                        System.err.println("Stopped watching " + folder + ": folder is no longer accessible");
+                        return;
+                    }
+                    key = watchService.poll(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+                }
+
+                if (!changed.isEmpty()) {
+                    updateExecutor.execute(() -> applyChanges(changed));
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher closed
+        }
+    }
+
+    private void collectChanges(WatchKey key, Set<String> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                System.err.println("Too many changes in " + folder + " at once, some may have been missed");
+                continue;
+            }
+            String fileName = event.context().toString();
+            if (fileName.endsWith(".csv")) {
+                changed.add(fileName);
+            }
+        }
+    }
+
+    private void applyChanges(Set<String> fileNames) {
+        int applied = 0;
+        for (String fileName : fileNames) {
+            File file = folder.resolve(fileName).toFile();
+            TeamSeason teamSeason = EvolutionGraphBuilder.parseTeamSeason(file);
+            if (teamSeason == null || !filter.matches(teamSeason)) {
+                continue;
+            }
+
+            boolean done;
+            if (file.isFile()) {
+                done = builder.reloadTeamFile(file);
+                if (done) System.out.println("Reloaded " + fileName);
+            } else {
+                done = builder.removeTeamFile(file);
+                if (done) System.out.println("Removed " + fileName);
+            }
+            if (done) applied++;
+        }
+
+        if (applied > 0) {
+            for (Runnable listener : listeners) {
+                listener.run();
+            }
+        }
+    }
+}
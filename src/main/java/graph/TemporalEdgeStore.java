@@ -0,0 +1,397 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TemporalEdgeStore keeps every co-play edge together with the seasons it was active in.
+ * <p>
+ * An edge is identified by a packed {@code long} key made of its two player IDs
+ * (smaller ID in the high half), which an open-addressing map resolves to a dense edge ID.
+ * Per edge, the seasons are kept sorted in an {@code int[]} next to an {@code int[]} of
+ * prefix sums of the counts (number of team-season rosters the pair shared per season),
+ * so the cumulative weight up to any season is a single binary search.
+ * <p>
+ * A season -> edge IDs index is maintained on insert, so the edges of one season
+ * can be listed without scanning the edges of every other season.
+ * <p>
+ * Co-play can also be retracted again (when a team-season file is reloaded or deleted).
+ * An edge whose last season is retracted keeps its ID with no seasons, and is reused
+ * if the pair plays together again.
+ */
+public class TemporalEdgeStore {
+
+    private static final int INITIAL_EDGES = 1024;
+    private static final int INITIAL_SEASONS = 2;
+    private static final IntList NO_EDGES = new IntList(1);
+
+    // Packed player pair -> edge ID
+    private LongIntHashMap index = new LongIntHashMap(INITIAL_EDGES);
+
+    // Edge ID -> packed player pair
+    private long[] keys = new long[INITIAL_EDGES];
+
+    // Edge ID -> sorted seasons and running totals of the counts (only the first seasonSizes[edge] slots are used)
+    private int[][] seasons = new int[INITIAL_EDGES][];
+    private int[][] prefixSums = new int[INITIAL_EDGES][];
+    private int[] seasonSizes = new int[INITIAL_EDGES];
+
+    private int edgeCount;
+
+    // Season -> IDs of the edges active in that season
+    private final Map<Integer, IntList> seasonIndex = new HashMap<>();
+
+    /**
+     * Packs two player IDs into an order-independent edge key.
+     */
+    public static long pack(int playerA, int playerB) {
+        int lo = Math.min(playerA, playerB);
+        int hi = Math.max(playerA, playerB);
+        return ((long) lo << 32) | hi;
+    }
+
+    /**
+     * Records that two players shared a roster in a season.
+     *
+     * @return the edge ID
+     */
+    public int add(int playerA, int playerB, int season) {
+        long key = pack(playerA, playerB);
+        int edge = index.get(key, -1);
+        if (edge < 0) {
+            edge = newEdge(key, new int[INITIAL_SEASONS], new int[INITIAL_SEASONS]);
+        }
+
+        int size = seasonSizes[edge];
+        int[] edgeSeasons = seasons[edge];
+        int pos = Arrays.binarySearch(edgeSeasons, 0, size, season);
+        if (pos >= 0) {
+            incrementFrom(prefixSums[edge], pos, size);
+            return edge;
+        }
+
+        // Insert the new season keeping the array sorted (usually appends at the end)
+        pos = -pos - 1;
+        if (size == edgeSeasons.length) {
+            int capacity = Math.max(INITIAL_SEASONS, size * 2);
+            seasons[edge] = edgeSeasons = Arrays.copyOf(edgeSeasons, capacity);
+            prefixSums[edge] = Arrays.copyOf(prefixSums[edge], capacity);
+        }
+        int[] edgePrefix = prefixSums[edge];
+        System.arraycopy(edgeSeasons, pos, edgeSeasons, pos + 1, size - pos);
+        System.arraycopy(edgePrefix, pos, edgePrefix, pos + 1, size - pos);
+        edgeSeasons[pos] = season;
+        edgePrefix[pos] = pos > 0 ? edgePrefix[pos - 1] : 0;
+        incrementFrom(edgePrefix, pos, size + 1);
+        seasonSizes[edge] = size + 1;
+
+        seasonIndex.computeIfAbsent(season, s -> new IntList()).add(edge);
+        return edge;
+    }
+
+    /**
+     * Retracts one shared roster of two players in a season, the inverse of {@link #add}.
+     * When the count for that season drops to zero, the season is removed from the edge
+     * and the edge from the season index.
+     *
+     * @return the edge ID, or -1 if the pair had no co-play in that season
+     */
+    public int remove(int playerA, int playerB, int season) {
+        int edge = index.get(pack(playerA, playerB), -1);
+        if (edge < 0) {
+            return -1;
+        }
+
+        int retracted = retract(edge, season);
+        if (retracted < 0) {
+            return -1;
+        }
+        if (retracted > 0) {
+            seasonIndex.get(season).removeValue(edge);
+        }
+        return edge;
+    }
+
+    /**
+     * Retracts one shared roster in a season: {@link #remove} for every pair of its players.
+     * Edges that leave the season are dropped from the season's edge list in one pass at the
+     * end, instead of one list scan per edge.
+     *
+     * @param roster player IDs of the roster
+     * @param season season of the roster
+     */
+    public void removeRoster(int[] roster, int season) {
+        BitSet leftSeason = null;
+        for (int i = 0; i < roster.length; i++) {
+            for (int j = i + 1; j < roster.length; j++) {
+                int edge = index.get(pack(roster[i], roster[j]), -1);
+                if (edge >= 0 && retract(edge, season) > 0) {
+                    if (leftSeason == null) {
+                        leftSeason = new BitSet(edgeCount);
+                    }
+                    leftSeason.set(edge);
+                }
+            }
+        }
+        if (leftSeason != null) {
+            seasonIndex.get(season).removeAll(leftSeason);
+        }
+    }
+
+    /*
+     * Takes one co-play in a season off an edge, closing the gap when none is left.
+     * Returns -1 if the edge had no co-play in that season, 1 if the season was removed
+     * from the edge, 0 otherwise.
+     */
+    private int retract(int edge, int season) {
+        int size = seasonSizes[edge];
+        int[] edgeSeasons = seasons[edge];
+        int[] edgePrefix = prefixSums[edge];
+        int pos = Arrays.binarySearch(edgeSeasons, 0, size, season);
+        if (pos < 0) {
+            return -1;
+        }
+
+        decrementFrom(edgePrefix, pos, size);
+        if (edgePrefix[pos] != (pos > 0 ? edgePrefix[pos - 1] : 0)) {
+            return 0;
+        }
+
+        // No co-play left in this season: close the gap
+        System.arraycopy(edgeSeasons, pos + 1, edgeSeasons, pos, size - pos - 1);
+        System.arraycopy(edgePrefix, pos + 1, edgePrefix, pos, size - pos - 1);
+        seasonSizes[edge] = size - 1;
+        return 1;
+    }
+
+    /**
+     * Merges a partial store (built over later rosters with the same player IDs) into this one.
+     * The result is the same as replaying the partial's {@link #add} calls in their order:
+     * new edges get IDs in the partial's edge order, and each season's edge list is extended
+     * in the partial's order.
+     */
+    public void addAll(TemporalEdgeStore partial) {
+        int[] edgeOf = new int[partial.edgeCount];
+        for (int p = 0; p < partial.edgeCount; p++) {
+            int partialSize = partial.seasonSizes[p];
+            int edge = index.get(partial.keys[p], -1);
+            if (edge < 0) {
+                edge = newEdge(partial.keys[p], Arrays.copyOf(partial.seasons[p], Math.max(INITIAL_SEASONS, partialSize)),
+                        Arrays.copyOf(partial.prefixSums[p], Math.max(INITIAL_SEASONS, partialSize)));
+                seasonSizes[edge] = partialSize;
+            } else {
+                mergeSeasons(edge, partial.seasons[p], partial.prefixSums[p], partialSize);
+            }
+            edgeOf[p] = edge;
+        }
+
+        // An edge joins a season's list if the partial was its first co-play in that season
+        for (Map.Entry<Integer, IntList> partialSeason : partial.seasonIndex.entrySet()) {
+            int season = partialSeason.getKey();
+            IntList partialEdges = partialSeason.getValue();
+            IntList seasonEdges = null;
+            for (int i = 0; i < partialEdges.size(); i++) {
+                int p = partialEdges.get(i);
+                int edge = edgeOf[p];
+                if (weightIn(edge, season) == partial.weightIn(p, season)) {
+                    if (seasonEdges == null) {
+                        seasonEdges = seasonIndex.computeIfAbsent(season, s -> new IntList());
+                    }
+                    seasonEdges.add(edge);
+                }
+            }
+        }
+    }
+
+    // Merges sorted seasons and running totals of another store into an existing edge
+    private void mergeSeasons(int edge, int[] otherSeasons, int[] otherPrefix, int otherSize) {
+        int size = seasonSizes[edge];
+        int[] edgeSeasons = seasons[edge];
+        int[] edgePrefix = prefixSums[edge];
+        int[] mergedSeasons = new int[size + otherSize];
+        int[] mergedPrefix = new int[size + otherSize];
+
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        int total = 0;
+        while (i < size || j < otherSize) {
+            int season;
+            int count = 0;
+            if (j == otherSize || (i < size && edgeSeasons[i] <= otherSeasons[j])) {
+                season = edgeSeasons[i];
+            } else {
+                season = otherSeasons[j];
+            }
+            if (i < size && edgeSeasons[i] == season) {
+                count += edgePrefix[i] - (i > 0 ? edgePrefix[i - 1] : 0);
+                i++;
+            }
+            if (j < otherSize && otherSeasons[j] == season) {
+                count += otherPrefix[j] - (j > 0 ? otherPrefix[j - 1] : 0);
+                j++;
+            }
+            total += count;
+            mergedSeasons[n] = season;
+            mergedPrefix[n] = total;
+            n++;
+        }
+
+        seasons[edge] = mergedSeasons;
+        prefixSums[edge] = mergedPrefix;
+        seasonSizes[edge] = n;
+    }
+
+    // Adds one to the running totals from position pos onwards
+    private static void incrementFrom(int[] prefix, int pos, int size) {
+        for (int k = pos; k < size; k++) {
+            prefix[k]++;
+        }
+    }
+
+    // Subtracts one from the running totals from position pos onwards
+    private static void decrementFrom(int[] prefix, int pos, int size) {
+        for (int k = pos; k < size; k++) {
+            prefix[k]--;
+        }
+    }
+
+    private int newEdge(long key, int[] edgeSeasons, int[] edgePrefix) {
+        if (edgeCount == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            seasons = Arrays.copyOf(seasons, capacity);
+            prefixSums = Arrays.copyOf(prefixSums, capacity);
+            seasonSizes = Arrays.copyOf(seasonSizes, capacity);
+        }
+        int edge = edgeCount++;
+        keys[edge] = key;
+        seasons[edge] = edgeSeasons;
+        prefixSums[edge] = edgePrefix;
+        index.put(key, edge);
+        return edge;
+    }
+
+    /*
+     * Appends a complete edge, as read back from a snapshot: sorted seasons and their running totals.
+     * The arrays are taken over by the store.
+     */
+    int restoreEdge(long key, int[] edgeSeasons, int[] edgePrefix, int size) {
+        int edge = newEdge(key, edgeSeasons, edgePrefix);
+        seasonSizes[edge] = size;
+        for (int k = 0; k < size; k++) {
+            seasonIndex.computeIfAbsent(edgeSeasons[k], s -> new IntList()).add(edge);
+        }
+        return edge;
+    }
+
+    // Packed player pair of an edge
+    long key(int edge) {
+        return keys[edge];
+    }
+
+    // Running totals of an edge's counts, aligned with season(edge, k)
+    int prefixSum(int edge, int k) {
+        return prefixSums[edge][k];
+    }
+
+    /**
+     * @return the edge ID for two players, or -1 if they never played together
+     */
+    public int find(int playerA, int playerB) {
+        return index.get(pack(playerA, playerB), -1);
+    }
+
+    // Number of distinct player pairs stored, including pairs whose co-play was fully retracted
+    /**
+     * Removes every edge, leaving the store as newly created.
+     */
+    public void clear() {
+        index = new LongIntHashMap(INITIAL_EDGES);
+        keys = new long[INITIAL_EDGES];
+        seasons = new int[INITIAL_EDGES][];
+        prefixSums = new int[INITIAL_EDGES][];
+        seasonSizes = new int[INITIAL_EDGES];
+        edgeCount = 0;
+        seasonIndex.clear();
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int playerA(int edge) {
+        return (int) (keys[edge] >>> 32);
+    }
+
+    public int playerB(int edge) {
+        return (int) keys[edge];
+    }
+
+    /**
+     * Returns the IDs of all edges active in a season.
+     * The list is owned by the store and must not be modified.
+     */
+    public IntList edgesIn(int season) {
+        return seasonIndex.getOrDefault(season, NO_EDGES);
+    }
+
+    // Number of distinct seasons the edge was active in
+    public int seasonCount(int edge) {
+        return seasonSizes[edge];
+    }
+
+    /**
+     * @param edge edge ID
+     * @param k    index from 0 to seasonCount - 1, in ascending season order
+     */
+    public int season(int edge, int k) {
+        return seasons[edge][k];
+    }
+
+    /**
+     * @param edge edge ID
+     * @param k    index from 0 to seasonCount - 1, in ascending season order
+     */
+    public int count(int edge, int k) {
+        int[] edgePrefix = prefixSums[edge];
+        return k > 0 ? edgePrefix[k] - edgePrefix[k - 1] : edgePrefix[0];
+    }
+
+    /**
+     * @return the edge weight in one season, 0 if the pair did not play together that season
+     */
+    public int weightIn(int edge, int season) {
+        int pos = Arrays.binarySearch(seasons[edge], 0, seasonSizes[edge], season);
+        return pos >= 0 ? count(edge, pos) : 0;
+    }
+
+    /**
+     * @return the total weight of all seasons up to and including {@code upToSeason}
+     */
+    public int weightUpTo(int edge, int upToSeason) {
+        int pos = Arrays.binarySearch(seasons[edge], 0, seasonSizes[edge], upToSeason);
+        int last = pos >= 0 ? pos : -pos - 2;
+        return last >= 0 ? prefixSums[edge][last] : 0;
+    }
+
+    /**
+     * Writes the cumulative weight of every edge up to {@code upToSeason} into a buffer
+     * indexed by edge ID. Edges that only start later get 0.
+     *
+     * @param upToSeason include all seasons up to this year
+     * @param buffer     buffer to reuse between calls; replaced if shorter than edgeCount
+     * @return the filled buffer (the argument itself whenever it was large enough)
+     */
+    public int[] weightsUpTo(int upToSeason, int[] buffer) {
+        if (buffer == null || buffer.length < edgeCount) {
+            buffer = new int[edgeCount];
+        }
+        for (int edge = 0; edge < edgeCount; edge++) {
+            buffer[edge] = weightUpTo(edge, upToSeason);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,23 @@
+package model;
+
+import java.util.Comparator;
+
+/**
+ * Identifies one team roster in one season (e.g. "Bayern Munich", 2020).
+ * Ordered by team name, then season.
+ */
+public record TeamSeason(String team, int season) implements Comparable<TeamSeason> {
+
+    private static final Comparator<TeamSeason> ORDER =
+            Comparator.comparing(TeamSeason::team).thenComparingInt(TeamSeason::season);
+
+    @Override
+    public int compareTo(TeamSeason other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public String toString() {
+        return team + "_" + season;
+    }
+}
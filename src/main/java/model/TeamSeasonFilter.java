@@ -0,0 +1,44 @@
+package model;
+
+import java.util.Set;
+
+/**
+ * Selects which team-seasons to load: an inclusive season range and a set of team names
+ * (as in {@link TeamSeason#team()}, e.g. "Bayern Munich"). An empty team set means all teams.
+ */
+public record TeamSeasonFilter(int fromSeason, int toSeason, Set<String> teams) {
+
+    public static final TeamSeasonFilter ALL = new TeamSeasonFilter(Integer.MIN_VALUE, Integer.MAX_VALUE, Set.of());
+
+    public TeamSeasonFilter {
+        teams = Set.copyOf(teams);
+    }
+
+    /**
+     * All teams, seasons from {@code fromSeason} to {@code toSeason} inclusive.
+     */
+    public static TeamSeasonFilter seasons(int fromSeason, int toSeason) {
+        return new TeamSeasonFilter(fromSeason, toSeason, Set.of());
+    }
+
+    /**
+     * Same season range, restricted to the given teams.
+     */
+    public TeamSeasonFilter withTeams(String... teamNames) {
+        return new TeamSeasonFilter(fromSeason, toSeason, Set.of(teamNames));
+    }
+
+    public boolean matches(TeamSeason teamSeason) {
+        return teamSeason.season() >= fromSeason && teamSeason.season() <= toSeason
+                && (teams.isEmpty() || teams.contains(teamSeason.team()));
+    }
+
+    @Override
+    public String toString() {
+        String range = fromSeason == Integer.MIN_VALUE && toSeason == Integer.MAX_VALUE
+                ? "all seasons"
+                : "seasons " + (fromSeason == Integer.MIN_VALUE ? "" : fromSeason) + "-"
+                + (toSeason == Integer.MAX_VALUE ? "" : toSeason);
+        return (teams.isEmpty() ? "all teams" : String.join(", ", teams)) + ", " + range;
+    }
+}
@@ -0,0 +1,155 @@
+package scraper;
+
+import model.TeamSeason;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Append-only checkpoint journal of the team-seasons a download job has finished,
+ * so an interrupted job resumes where it stopped instead of starting over.
+ * <p>
+ * The first line records when the job started ({@code started=<epoch millis>}), then one
+ * line per finished unit ({@code team,season}), flushed as soon as it is written. A line cut
+ * off by a crash is dropped when the journal is reopened. A journal older than the maximum
+ * age given to {@link #open} belongs to a job that is not worth resuming and is discarded.
+ * The journal is deleted once a job has run all its units (successfully or not), so the
+ * next job downloads everything again. Safe to use from several threads.
+ */
+public class DownloadJournal implements Closeable {
+
+    private static final String STARTED = "started=";
+
+    private final Path file;
+    private final Instant started;
+    private final Set<TeamSeason> completed;
+    private final Writer writer;
+
+    private DownloadJournal(Path file, Instant started, Set<TeamSeason> completed, Writer writer) {
+        this.file = file;
+        this.started = started;
+        this.completed = completed;
+        this.writer = writer;
+    }
+
+    /**
+     * Opens a journal for appending, reading the units finished by an earlier, interrupted run.
+     * A journal started more than {@code maxAge} ago, or one without a start time, is discarded
+     * and a new job is started.
+     *
+     * @param file   journal file; created if missing
+     * @param maxAge age after which an unfinished job is no longer resumed
+     */
+    public static DownloadJournal open(Path file, Duration maxAge) throws IOException {
+        Instant now = Instant.now();
+        Instant started = null;
+        Set<TeamSeason> completed = new HashSet<>();
+        if (Files.isRegularFile(file)) {
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            int end = content.lastIndexOf('\n') + 1;
+            String[] lines = content.substring(0, end).split("\n");
+            started = lines[0].startsWith(STARTED) ? parseStarted(lines[0]) : null;
+            if (started != null && started.plus(maxAge).isAfter(now)) {
+                if (end < content.length()) {
+                    // Drop the partial last line, so new lines start at a line boundary
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        channel.truncate(content.substring(0, end).getBytes(StandardCharsets.UTF_8).length);
+                    }
+                }
+                for (int i = 1; i < lines.length; i++) {
+                    TeamSeason unit = parseLine(lines[i]);
+                    if (unit != null) {
+                        completed.add(unit);
+                    }
+                }
+            } else {
+                System.err.println("Ignoring download journal " + file
+                        + (started != null ? " of a job started " + started : " without a start time"));
+                started = null;
+            }
+        }
+        if (started == null) {
+            // New job: replace any discarded journal with one that only holds the start time
+            started = now;
+            Files.writeString(file, STARTED + now.toEpochMilli() + "\n", StandardCharsets.UTF_8);
+        }
+        Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return new DownloadJournal(file, started, completed, writer);
+    }
+
+    /**
+     * @return when the job recorded in this journal started
+     */
+    public Instant startedAt() {
+        return started;
+    }
+
+    /**
+     * @return true if an earlier run (or this one) finished the team-season
+     */
+    public synchronized boolean isCompleted(String team, int season) {
+        return completed.contains(new TeamSeason(team, season));
+    }
+
+    /**
+     * Records a finished team-season. Call it only after its output file is in place.
+     */
+    public synchronized void markCompleted(String team, int season) throws IOException {
+        if (completed.add(new TeamSeason(team, season))) {
+            writer.write(team + "," + season + "\n");
+            writer.flush();
+        }
+    }
+
+    /**
+     * @return number of finished team-seasons
+     */
+    public synchronized int completedCount() {
+        return completed.size();
+    }
+
+    /**
+     * Closes and deletes the journal, after a job ran all its units.
+     */
+    public synchronized void delete() throws IOException {
+        writer.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private static Instant parseStarted(String line) {
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(line.substring(STARTED.length()).trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // "team,season"; the team name may itself contain commas
+    private static TeamSeason parseLine(String line) {
+        int comma = line.lastIndexOf(',');
+        if (comma <= 0) {
+            return null;
+        }
+        try {
+            return new TeamSeason(line.substring(0, comma), Integer.parseInt(line.substring(comma + 1).trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package scraper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * {@link PageTransport} backed by one shared {@link HttpClient}: connections are kept alive and
+ * reused across requests (HTTP/2 where the server supports it, several requests over one
+ * connection), responses are requested gzip-compressed, and connect / request timeouts apply.
+ * <p>
+ * Safe to use from many threads at once; share one instance for a whole download.
+ */
+public class HttpClientTransport implements PageTransport {
+
+    // Same browser user agent Jsoup sends by default, so servers treat both alike
+    public static final String DEFAULT_USER_AGENT = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_12_4) "
+            + "AppleWebKit/537.36 (KHTML, like Gecko) Chrome/53.0.2785.143 Safari/537.36";
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final String userAgent;
+
+    /**
+     * Uses a 10 s connect timeout and a 30 s request timeout.
+     */
+    public HttpClientTransport() {
+        this(Duration.ofSeconds(10), Duration.ofSeconds(30));
+    }
+
+    /**
+     * @param connectTimeout time to establish a connection
+     * @param requestTimeout time from sending a request until the response headers arrive
+     */
+    public HttpClientTransport(Duration connectTimeout, Duration requestTimeout) {
+        this(connectTimeout, requestTimeout, DEFAULT_USER_AGENT);
+    }
+
+    public HttpClientTransport(Duration connectTimeout, Duration requestTimeout, String userAgent) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.userAgent = userAgent;
+    }
+
+    @Override
+    public Response get(String url, Map<String, String> requestHeaders) throws IOException {
+        HttpRequest.Builder request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed URL: " + url, e);
+        }
+        request.timeout(requestTimeout)
+                .header("User-Agent", userAgent)
+                .header("Accept-Encoding", "gzip");
+        requestHeaders.forEach(request::header);
+
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + url);
+        }
+
+        int status = response.statusCode();
+        if ((status < 200 || status >= 300) && status != 304) {
+            throw new HttpStatusException(status, url);
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            if (!header.getValue().isEmpty()) {
+                headers.put(header.getKey(), header.getValue().get(0));
+            }
+        }
+
+        byte[] body = response.body();
+        if ("gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse("")) && body.length > 0) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                body = in.readAllBytes();
+            }
+        }
+
+        return new Response(status, body, charsetOf(response.headers().firstValue("Content-Type").orElse(null)), headers);
+    }
+
+    // "text/html; charset=UTF-8" -> "UTF-8"
+    private static String charsetOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (String part : contentType.split(";")) {
+            String parameter = part.trim();
+            if (parameter.regionMatches(true, 0, "charset=", 0, 8)) {
+                String charset = parameter.substring(8).trim().replace("\"", "");
+                return charset.isEmpty() ? null : charset;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,234 @@
+package scraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Disk cache of raw HTML pages with conditional GETs.
+ * <p>
+ * Page bodies are stored content-addressed, as {@code pages/<sha-256 of the body>.html.gz},
+ * so identical pages are stored once. For every URL, {@code index/<sha-256 of the URL>.properties}
+ * records the URL, the body hash, its charset and the ETag / Last-Modified validators.
+ * <p>
+ * A cached page is revalidated with If-None-Match / If-Modified-Since, and reused when the
+ * server answers 304. Once the caller has checked the content of a page that no longer changes
+ * (a finished season whose roster parsed into players), it calls {@link #markFinal}; the page is
+ * recorded as final ({@code final=true}) and from then on served from disk without any request.
+ * Every other copy is revalidated, so neither a page cached mid-season nor an error, rate-limit
+ * or otherwise empty page fetched for a finished season is kept for good. Safe to use from
+ * several threads.
+ */
+public class HttpPageCache {
+
+    private final Path pagesDir;
+    private final Path indexDir;
+    private final PageTransport transport;
+
+    /**
+     * Downloads with the scraper's transport ({@link PlayerScraper#getTransport()}).
+     *
+     * @param cacheDir directory of the cache; created if missing
+     */
+    public HttpPageCache(Path cacheDir) throws IOException {
+        this(cacheDir, PlayerScraper.getTransport());
+    }
+
+    /**
+     * @param cacheDir  directory of the cache; created if missing
+     * @param transport downloads the pages that are not served from the cache
+     */
+    public HttpPageCache(Path cacheDir, PageTransport transport) throws IOException {
+        this.transport = transport;
+        this.pagesDir = cacheDir.resolve("pages");
+        this.indexDir = cacheDir.resolve("index");
+        Files.createDirectories(pagesDir);
+        Files.createDirectories(indexDir);
+    }
+
+    /**
+     * Returns the season (start year, as in Transfermarkt's saison_id) that is in progress on a date.
+     * A season starts in July, so on 2024-03-01 season 2023 (2023/24) is still running.
+     */
+    public static int currentSeason(LocalDate today) {
+        return today.getMonthValue() >= 7 ? today.getYear() : today.getYear() - 1;
+    }
+
+    /**
+     * Policy for season pages: every season before the current one is finished and immutable.
+     */
+    public static boolean isFinishedSeason(int season) {
+        return season < currentSeason(LocalDate.now());
+    }
+
+    /**
+     * @return true if the page is immutable and its cached copy is final, i.e. {@link #fetch} needs no network
+     */
+    public boolean isServedLocally(String url, boolean immutable) {
+        if (!immutable) {
+            return false;
+        }
+        Properties entry = readIndex(url);
+        return entry != null && isFinal(entry) && Files.isRegularFile(pageFile(entry.getProperty("content")));
+    }
+
+    /**
+     * Reads a page from the cache only, without any network access.
+     *
+     * @throws FileNotFoundException if the page is not cached
+     */
+    public Document loadCached(String url) throws IOException {
+        Properties entry = readIndex(url);
+        Path cachedPage = entry != null ? pageFile(entry.getProperty("content")) : null;
+        if (cachedPage == null || !Files.isRegularFile(cachedPage)) {
+            throw new FileNotFoundException("not in page cache: " + url);
+        }
+        return parse(cachedPage, entry, url);
+    }
+
+    /**
+     * Fetches a page through the cache.
+     *
+     * @param url       page URL
+     * @param immutable true if the page no longer changes from now on: a copy marked final
+     *                  with {@link #markFinal} is then served without a request
+     * @return the parsed page
+     */
+    public Document fetch(String url, boolean immutable) throws IOException {
+        Properties entry = readIndex(url);
+        Path cachedPage = entry != null ? pageFile(entry.getProperty("content")) : null;
+        boolean cached = cachedPage != null && Files.isRegularFile(cachedPage);
+
+        if (cached && immutable && isFinal(entry)) {
+            return parse(cachedPage, entry, url);
+        }
+
+        Map<String, String> conditions = new HashMap<>();
+        if (cached) {
+            if (entry.getProperty("etag") != null) {
+                conditions.put("If-None-Match", entry.getProperty("etag"));
+            }
+            if (entry.getProperty("lastModified") != null) {
+                conditions.put("If-Modified-Since", entry.getProperty("lastModified"));
+            }
+        }
+
+        PageTransport.Response response = transport.get(url, conditions);
+        if (response.statusCode() == 304) {
+            if (!cached) {
+                throw new IOException("Unexpected 304 Not Modified for uncached " + url);
+            }
+            return parse(cachedPage, entry, url);
+        }
+
+        byte[] body = response.body();
+        String charset = response.charset() != null ? response.charset() : StandardCharsets.UTF_8.name();
+        store(url, body, charset, response.header("ETag"), response.header("Last-Modified"));
+        return Jsoup.parse(new ByteArrayInputStream(body), charset, url);
+    }
+
+    /**
+     * Records the cached copy of a page as final, so {@link #fetch} serves it without a request
+     * whenever the page is immutable. Call it only once the copy's content has been checked
+     * (e.g. the roster parsed into players) and the page can no longer change.
+     *
+     * @return true if the page is cached (and now final)
+     */
+    public boolean markFinal(String url) throws IOException {
+        Properties entry = readIndex(url);
+        if (entry == null) {
+            return false;
+        }
+        if (!isFinal(entry)) {
+            entry.setProperty("final", "true");
+            writeIndex(url, entry);
+        }
+        return true;
+    }
+
+    // True if the cached copy was checked by the caller and will not change any more
+    private static boolean isFinal(Properties entry) {
+        return "true".equals(entry.getProperty("final"));
+    }
+
+    private void store(String url, byte[] body, String charset, String etag, String lastModified) throws IOException {
+        String content = sha256(body);
+        Path page = pageFile(content);
+        if (!Files.isRegularFile(page)) {
+            Path temp = Files.createTempFile(pagesDir, content, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(body);
+            }
+            Files.move(temp, page, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        Properties entry = new Properties();
+        entry.setProperty("url", url);
+        entry.setProperty("content", content);
+        entry.setProperty("charset", charset);
+        if (etag != null) entry.setProperty("etag", etag);
+        if (lastModified != null) entry.setProperty("lastModified", lastModified);
+        writeIndex(url, entry);
+    }
+
+    private void writeIndex(String url, Properties entry) throws IOException {
+        Path index = indexFile(url);
+        Path temp = Files.createTempFile(indexDir, index.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            entry.store(writer, null);
+        }
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Document parse(Path page, Properties entry, String url) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(page))) {
+            return Jsoup.parse(in, entry.getProperty("charset", StandardCharsets.UTF_8.name()), url);
+        }
+    }
+
+    // Index entry of a URL, or null if the URL was never cached (or the entry is unreadable)
+    private Properties readIndex(String url) {
+        Path index = indexFile(url);
+        if (!Files.isRegularFile(index)) {
+            return null;
+        }
+        Properties entry = new Properties();
+        try (Reader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            entry.load(reader);
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable cache entry for " + url + ": " + e.getMessage());
+            return null;
+        }
+        return url.equals(entry.getProperty("url")) && entry.getProperty("content") != null ? entry : null;
+    }
+
+    private Path indexFile(String url) {
+        return indexDir.resolve(sha256(url.getBytes(StandardCharsets.UTF_8)) + ".properties");
+    }
+
+    private Path pageFile(String content) {
+        return pagesDir.resolve(content + ".html.gz");
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package scraper;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Thrown by a {@link PageTransport} when the server answers with an error status
+ * (anything but 2xx and 304), so callers can tell a 404 from a 503 without parsing the message.
+ */
+public class HttpStatusException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final String url;
+
+    public HttpStatusException(int statusCode, String url) {
+        super("HTTP error fetching URL. Status=" + statusCode + ", URL=" + url);
+        this.statusCode = statusCode;
+        this.url = url;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    public String url() {
+        return url;
+    }
+}
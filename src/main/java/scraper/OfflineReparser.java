@@ -0,0 +1,138 @@
+package scraper;
+
+import model.Player;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Re-parses saved roster pages without network access, on a pool of worker threads.
+ * <p>
+ * Pages are named like the CSV files they produce ("Bayern_Munich_2020.html" becomes
+ * "Bayern_Munich_2020"), and can come from a folder, a zip file, or any other
+ * {@link PageSource} such as the {@link HttpPageCache}. After a change to the parsing logic,
+ * every CSV can be re-derived from the saved pages in seconds.
+ */
+public class OfflineReparser {
+
+    /**
+     * Loads one saved page.
+     */
+    @FunctionalInterface
+    public interface PageSource {
+        Document load() throws IOException;
+    }
+
+    /**
+     * A saved page and the name of the team-season it belongs to (e.g. "Bayern_Munich_2020").
+     */
+    public record SavedPage(String name, PageSource source) {
+    }
+
+    /**
+     * The players parsed from one page, or the error that prevented it.
+     */
+    public record ParsedPage(String name, List<Player> players, Exception error) {
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    private OfflineReparser() {
+    }
+
+    /**
+     * Lists the *.html / *.htm pages of a folder, sorted by name.
+     */
+    public static List<SavedPage> listFolder(File folder) {
+        File[] files = folder.listFiles((dir, name) -> isHtml(name));
+        if (files == null) {
+            System.err.println("Invalid folder path: " + folder);
+            return List.of();
+        }
+        Arrays.sort(files, Comparator.comparing(File::getName));
+
+        List<SavedPage> pages = new ArrayList<>(files.length);
+        for (File file : files) {
+            pages.add(new SavedPage(baseName(file.getName()),
+                    () -> Jsoup.parse(file, null, "")));
+        }
+        return pages;
+    }
+
+    /**
+     * Lists the *.html / *.htm pages of a zip file, sorted by name. The zip file must stay
+     * open until the pages are parsed.
+     */
+    public static List<SavedPage> listZip(ZipFile zip) {
+        List<SavedPage> pages = new ArrayList<>();
+        zip.stream()
+                .filter(entry -> !entry.isDirectory() && isHtml(entry.getName()))
+                .sorted(Comparator.comparing(ZipEntry::getName))
+                .forEach(entry -> pages.add(new SavedPage(baseName(entry.getName()), () -> {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        return Jsoup.parse(in, null, "");
+                    }
+                })));
+        return pages;
+    }
+
+    /**
+     * Loads and parses all pages on a fixed pool of threads.
+     *
+     * @param pages       pages to parse
+     * @param parallelism number of worker threads
+     * @return one result per page, in the same order as the pages
+     */
+    public static List<ParsedPage> parseAll(List<SavedPage> pages, int parallelism) throws InterruptedException {
+        List<Future<ParsedPage>> futures = new ArrayList<>(pages.size());
+        try (ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism))) {
+            for (SavedPage page : pages) {
+                futures.add(pool.submit(() -> parse(page)));
+            }
+        }
+
+        List<ParsedPage> results = new ArrayList<>(pages.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                Exception cause = e.getCause() instanceof Exception ex ? ex : e;
+                results.add(new ParsedPage(pages.get(i).name(), List.of(), cause));
+            }
+        }
+        return results;
+    }
+
+    private static ParsedPage parse(SavedPage page) {
+        try {
+            return new ParsedPage(page.name(), PlayerScraper.parsePlayers(page.source().load()), null);
+        } catch (IOException | RuntimeException e) {
+            return new ParsedPage(page.name(), List.of(), e);
+        }
+    }
+
+    private static boolean isHtml(String name) {
+        return name.endsWith(".html") || name.endsWith(".htm");
+    }
+
+    // File name without directories and extension
+    private static String baseName(String name) {
+        String fileName = name.substring(name.lastIndexOf('/') + 1);
+        return fileName.substring(0, fileName.lastIndexOf('.'));
+    }
+}
@@ -0,0 +1,61 @@
+package scraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fetches the raw bytes of a page; Jsoup only parses them. The scraper and the
+ * {@link HttpPageCache} download through this interface, so the HTTP client can be
+ * swapped, e.g. for a local stub server or a canned response in tests.
+ * <p>
+ * The default is {@link HttpClientTransport}.
+ */
+@FunctionalInterface
+public interface PageTransport {
+
+    /**
+     * Sends a GET request.
+     *
+     * @param url            page URL
+     * @param requestHeaders extra request headers (e.g. If-None-Match), may be empty
+     * @return the response, for 2xx and 304 status codes
+     * @throws IOException on connection errors, timeouts and other status codes
+     */
+    Response get(String url, Map<String, String> requestHeaders) throws IOException;
+
+    /**
+     * Fetches and parses a page.
+     */
+    default Document getDocument(String url) throws IOException {
+        return get(url, Map.of()).parse(url);
+    }
+
+    /**
+     * A response with its body already decoded from any Content-Encoding.
+     *
+     * @param charset charset from the Content-Type header, or null to let Jsoup detect it
+     * @param headers response headers (first value of each); names are case-insensitive
+     */
+    record Response(int statusCode, byte[] body, String charset, Map<String, String> headers) {
+
+        public Response {
+            Map<String, String> caseInsensitive = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            caseInsensitive.putAll(headers);
+            headers = caseInsensitive;
+        }
+
+        // Value of a response header, or null
+        public String header(String name) {
+            return headers.get(name);
+        }
+
+        public Document parse(String baseUri) throws IOException {
+            return Jsoup.parse(new ByteArrayInputStream(body), charset, baseUri);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package scraper;
+
+import model.Player;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.util.List;
+
+/**
+ * Extracts one {@link Player} from a row of a Transfermarkt squad table.
+ * <p>
+ * The row's cells are read once, by index, instead of running a CSS query per column,
+ * and number, age and date of birth are read with small hand-written scanners instead
+ * of regular expressions. The results are the same as the selector-based version:
+ * <pre>
+ * cell 0  td.rueckennummer  shirt number (div.rn_nummer)
+ * cell 1  td.posrela        nested table: name (td.hauptlink a), position (last row)
+ * cell 2                    "04/11/2002 (20)": date of birth and age
+ * cell 3                    nationality (img alt)
+ * cell 4                    current club (a title)
+ * cell 5..7                 height, foot, joined
+ * cell 8                    signed from (a title)
+ * cell 9                    market value
+ * </pre>
+ */
+final class PlayerRowExtractor {
+
+    private static final String NOT_AVAILABLE = "N/A";
+
+    private PlayerRowExtractor() {
+    }
+
+    /**
+     * Reads the player of one table row.
+     *
+     * @param row a {@code tr} of the squad table
+     * @return the player; missing values are "N/A" (text) or -1 (numbers)
+     */
+    static Player extract(Element row) {
+        Elements cells = row.children();
+
+        Element numberCell = null;
+        Element nameCell = null;
+        for (Element cell : cells) {
+            if (!isCell(cell)) {
+                continue;
+            }
+            if (numberCell == null && cell.hasClass("zentriert") && cell.hasClass("rueckennummer")) {
+                numberCell = cell;
+            }
+            if (nameCell == null && cell.hasClass("posrela")) {
+                nameCell = cell;
+            }
+        }
+
+        // Player number
+        String numberText = NOT_AVAILABLE;
+        if (numberCell != null) {
+            numberText = clean(joinText(filterTag(numberCell.getElementsByClass("rn_nummer"), "div")));
+        }
+        int number = parseIntSafe(numberText);
+
+        // Player name and position, from the nested table
+        String name = NOT_AVAILABLE;
+        String position = NOT_AVAILABLE;
+        if (nameCell != null) {
+            name = clean(joinText(linksIn(filterTag(nameCell.getElementsByClass("hauptlink"), "td"))));
+            position = clean(joinText(lastRowCells(nameCell)));
+        }
+
+        // Date of birth and age, e.g. "04/11/2002 (20)"
+        String dobAndAge = cellText(cells, 2);
+        int bracket = dobAndAge.indexOf('(');
+        String dateOfBirth = bracket >= 0 ? dobAndAge.substring(0, bracket).trim() : dobAndAge;
+        int age = parseAge(dobAndAge);
+
+        String nationality = cellAttr(cells, 3, "img", "alt");
+        String currentClub = cellAttr(cells, 4, "a", "title");
+        String height = cellText(cells, 5);
+        String foot = cellText(cells, 6);
+        String joined = cellText(cells, 7);
+        String signedFrom = cellAttr(cells, 8, "a", "title");
+        String marketValue = cellText(cells, 9);
+
+        return new Player(
+                number, name, position, dateOfBirth, age,
+                nationality, currentClub, height, foot, joined, signedFrom, marketValue
+        );
+    }
+
+    /**
+     * Reads the age in brackets, e.g. 20 from "04/11/2002 (20)". Uses the last "(digits)" group;
+     * without one, all digits of the text are read as a number, like the former regex did.
+     *
+     * @return the age, or -1 if the text holds no number
+     */
+    static int parseAge(String text) {
+        for (int close = text.lastIndexOf(')'); close > 0; close = text.lastIndexOf(')', close - 1)) {
+            int start = close;
+            while (start > 0 && isDigit(text.charAt(start - 1))) {
+                start--;
+            }
+            if (start < close && start > 0 && text.charAt(start - 1) == '(') {
+                return parseIntSafe(text.substring(start, close));
+            }
+        }
+        return parseIntSafe(text);
+    }
+
+    /**
+     * Reads all ASCII digits of a text as one number, ignoring every other character.
+     *
+     * @param value the input string (e.g., "20", "(25)", or "-")
+     * @return the number, or -1 if the text has no digits, is "N/A" / "-", or overflows an int
+     */
+    static int parseIntSafe(String value) {
+        if (value == null || value.equals(NOT_AVAILABLE) || value.equals("-") || value.isEmpty()) return -1;
+        long result = 0;
+        boolean digits = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isDigit(c)) {
+                result = result * 10 + (c - '0');
+                if (result > Integer.MAX_VALUE) return -1;
+                digits = true;
+            }
+        }
+        return digits ? (int) result : -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isCell(Element element) {
+        return element.tagName().equals("td");
+    }
+
+    // Text of the cell at an index of the row, or "N/A"
+    private static String cellText(Elements cells, int index) {
+        if (index >= cells.size() || !isCell(cells.get(index))) {
+            return NOT_AVAILABLE;
+        }
+        return clean(cells.get(index).text());
+    }
+
+    // Attribute of the first matching element (that has it) inside the cell at an index, or "N/A"
+    private static String cellAttr(Elements cells, int index, String tag, String attr) {
+        if (index >= cells.size() || !isCell(cells.get(index))) {
+            return NOT_AVAILABLE;
+        }
+        for (Element element : cells.get(index).getElementsByTag(tag)) {
+            if (element.hasAttr(attr)) {
+                return clean(element.attr(attr));
+            }
+        }
+        return NOT_AVAILABLE;
+    }
+
+    // Links inside the given elements, in document order
+    private static Elements linksIn(List<Element> elements) {
+        Elements links = new Elements();
+        for (Element element : elements) {
+            for (Element link : element.getElementsByTag("a")) {
+                if (!links.contains(link)) {
+                    links.add(link);
+                }
+            }
+        }
+        return links;
+    }
+
+    // Cells of every row in the cell's nested table(s) that is the last child of its parent
+    private static Elements lastRowCells(Element nameCell) {
+        Elements result = new Elements();
+        for (Element tableRow : nameCell.getElementsByTag("tr")) {
+            if (tableRow.nextElementSibling() == null) {
+                for (Element cell : tableRow.getElementsByTag("td")) {
+                    if (!result.contains(cell)) {
+                        result.add(cell);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Elements filterTag(Elements elements, String tag) {
+        Elements result = new Elements(elements.size());
+        for (Element element : elements) {
+            if (element.tagName().equals(tag)) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    // Same as Elements.text(): the elements' texts joined by spaces
+    private static String joinText(List<Element> elements) {
+        if (elements.size() == 1) {
+            return elements.get(0).text();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Element element : elements) {
+            if (sb.length() != 0) sb.append(' ');
+            sb.append(element.text());
+        }
+        return sb.toString();
+    }
+
+    // Trimmed text, or "N/A" if it is empty or "-"
+    private static String clean(String text) {
+        text = text.trim();
+        return (text.isEmpty() || text.equals("-")) ? NOT_AVAILABLE : text;
+    }
+}
@@ -6,11 +6,29 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
 public class PlayerScraper {
 
+    // Downloads the pages; shared so connections are reused across requests
+    private static volatile PageTransport transport = new HttpClientTransport();
+
+    /**
+     * @return the transport {@link #fetch(String)} downloads pages with
+     */
+    public static PageTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Replaces the transport, e.g. with one using other timeouts, or with a stub in tests.
+     */
+    public static void setTransport(PageTransport transport) {
+        PlayerScraper.transport = transport;
+    }
+
     /**
      * Parses a Transfermarkt team page and extracts a list of players.
      *
@@ -20,98 +38,53 @@ public class PlayerScraper {
      * @throws IOException if a connection or parsing error occurs while fetching the page
      */
     public static List<Player> parsePlayers(String html) throws IOException {
-        List<Player> players = new ArrayList<>();
-        Document doc = Jsoup.connect(html).get();
-
-        Elements rows = doc.select("table.items > tbody > tr");
-
-        for (Element row : rows) {
-            try {
-                // Player number (parsed safely)
-                String numberText = safeText(row.select("td.zentriert.rueckennummer div.rn_nummer"));
-                int number = parseIntSafe(numberText);
-
-                // Player name and position
-                String name = safeText(row.select("td.posrela td.hauptlink a"));
-                String position = safeText(row.select("td.posrela tr:last-child td"));
-
-                // Date of birth and age
-                String dobAndAge = safeText(row.select("td:eq(2)")); // Example: "04/11/2002 (20)"
-                String dateOfBirth = dobAndAge.contains("(")
-                        ? dobAndAge.substring(0, dobAndAge.indexOf("(")).trim()
-                        : dobAndAge;
-                int age = parseIntSafe(dobAndAge.replaceAll(".*\\((\\d+)\\).*", "$1"));
-
-                // Nationality
-                String nationality = safeAttr(row.select("td:eq(3) img"), "alt");
-
-                // Current club
-                String currentClub = safeAttr(row.select("td:eq(4) a"), "title");
-
-                // Height, foot, joined date, previous club
-                String height = safeText(row.select("td:eq(5)"));
-                String foot = safeText(row.select("td:eq(6)"));
-                String joined = safeText(row.select("td:eq(7)"));
-                String signedFrom = safeAttr(row.select("td:eq(8) a"), "title");
-
-                // Market value
-                String marketValue = safeText(row.select("td:eq(9)"));
-
-                Player player = new Player(
-                        number, name, position, dateOfBirth, age,
-                        nationality, currentClub, height, foot, joined, signedFrom, marketValue
-                );
-                players.add(player);
-
-            } catch (Exception e) {
-                System.err.println("Error parsing table row: " + e.getMessage());
-            }
-        }
-
-        return players;
+        return parsePlayers(fetch(html));
     }
 
     /**
-     * Safely extracts and cleans text content from a Jsoup element selection.
-     * If the element is missing, empty, or contains "-", returns "N/A".
+     * Downloads a page without parsing the players (the fetch stage), through the current
+     * {@link PageTransport}.
      *
-     * @param elements the Jsoup Elements selection
-     * @return cleaned text value or "N/A" if not available
+     * @param url the URL of the team roster page
+     * @return the page as a Jsoup document
+     * @throws IOException if a connection error occurs
      */
-    private static String safeText(Elements elements) {
-        if (elements == null || elements.isEmpty()) return "N/A";
-        String text = elements.text().trim();
-        return (text.isEmpty() || text.equals("-")) ? "N/A" : text;
+    public static Document fetch(String url) throws IOException {
+        return transport.getDocument(url);
     }
 
     /**
-     * Safely extracts an attribute value (e.g., "alt", "title") from an HTML element.
-     * Returns "N/A" if the attribute or element is missing.
+     * Parses a roster page saved to disk, without network access.
+     * The charset is taken from the page's meta tag (UTF-8 if it has none).
      *
-     * @param elements the Jsoup Elements selection
-     * @param attr     the attribute name to extract
-     * @return the attribute value or "N/A" if not found
+     * @param htmlFile saved HTML page
+     * @param baseUri  URL the page was downloaded from, used to resolve relative links (may be "")
+     * @return a list of {@link Player} objects representing players in the squad
+     * @throws IOException if the file cannot be read
      */
-    private static String safeAttr(Elements elements, String attr) {
-        if (elements == null || elements.isEmpty()) return "N/A";
-        String val = elements.attr(attr).trim();
-        return (val.isEmpty() || val.equals("-")) ? "N/A" : val;
+    public static List<Player> parsePlayers(File htmlFile, String baseUri) throws IOException {
+        return parsePlayers(Jsoup.parse(htmlFile, null, baseUri));
     }
 
     /**
-     * Safely converts a string to an integer.
-     * Removes non-digit characters before parsing.
-     * Returns -1 if conversion fails or value is not numeric.
+     * Extracts the players from the squad table of an already fetched roster page (the parse stage).
+     * Pure CPU work, so many pages can be parsed in parallel. Each row is read by {@link PlayerRowExtractor}.
      *
-     * @param value the input string (e.g., "20", "(25)", or "-")
-     * @return the parsed integer value, or -1 if invalid
+     * @param doc the roster page
+     * @return a list of {@link Player} objects representing players in the squad
      */
-    private static int parseIntSafe(String value) {
-        try {
-            if (value == null || value.equals("N/A") || value.equals("-") || value.isEmpty()) return -1;
-            return Integer.parseInt(value.replaceAll("[^0-9]", ""));
-        } catch (Exception e) {
-            return -1;
+    public static List<Player> parsePlayers(Document doc) {
+        List<Player> players = new ArrayList<>();
+        Elements rows = doc.select("table.items > tbody > tr");
+
+        for (Element row : rows) {
+            try {
+                players.add(PlayerRowExtractor.extract(row));
+            } catch (Exception e) {
+                System.err.println("Error parsing table row: " + e.getMessage());
+            }
         }
+
+        return players;
     }
 }
@@ -0,0 +1,206 @@
+package scraper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs download tasks in priority order, so that a run cut short (by a time budget or a
+ * cancellation) has already fetched the most valuable pages.
+ * <p>
+ * Jobs start strictly by {@link Priority}, then in submission order: the next job starts
+ * only when one of the {@code maxInFlight} slots is free. The {@link TeamDataDownloader}
+ * still applies its per-host limits to every job. Once the time budget is used up or
+ * {@link #cancel()} is called, no further job starts; the jobs that did not start are
+ * reported in the {@link Outcome}.
+ */
+public class ScrapeScheduler {
+
+    /**
+     * Value of a job, most valuable first.
+     */
+    public enum Priority {
+        // The season in progress: rosters still change
+        CURRENT_SEASON,
+        // Seasons that ended recently: late corrections are still likely
+        RECENT_SEASON,
+        // Team-seasons without a data file yet
+        MISSING,
+        // Historical team-seasons that are already on disk
+        REFRESH
+    }
+
+    /**
+     * A task and its priority.
+     */
+    public record Job(TeamDataDownloader.DownloadTask task, Priority priority) {
+    }
+
+    /**
+     * Result of a run.
+     *
+     * @param results    results of the jobs that ran, in completion order
+     * @param notStarted jobs skipped because the budget ran out or the run was cancelled, in priority order
+     * @param cancelled  true if {@link #cancel()} was called
+     */
+    public record Outcome(List<TeamDataDownloader.DownloadResult> results, List<Job> notStarted, boolean cancelled) {
+    }
+
+    // Job with its submission number, to keep submission order within a priority
+    private record QueuedJob(Job job, long sequence) implements Comparable<QueuedJob> {
+
+        @Override
+        public int compareTo(QueuedJob other) {
+            int byPriority = job.priority().compareTo(other.job.priority());
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final TeamDataDownloader downloader;
+    private final int maxInFlight;
+    private final PriorityQueue<QueuedJob> queue = new PriorityQueue<>();
+    private long nextSequence;
+
+    private volatile boolean cancelled;
+    // Threads currently downloading; a thread leaves the set (under its lock) before its result is handed on
+    private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param downloader  downloads the jobs
+     * @param maxInFlight jobs running at once (across all hosts)
+     */
+    public ScrapeScheduler(TeamDataDownloader downloader, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.downloader = downloader;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Classifies a team-season page.
+     *
+     * @param season        season of the page
+     * @param currentSeason season in progress (see {@link HttpPageCache#currentSeason})
+     * @param recentSeasons number of finished seasons before the current one that count as recent
+     * @param onDisk        true if the team-season's data file already exists
+     */
+    public static Priority priorityOf(int season, int currentSeason, int recentSeasons, boolean onDisk) {
+        if (season >= currentSeason) {
+            return Priority.CURRENT_SEASON;
+        }
+        if (season >= currentSeason - recentSeasons) {
+            return Priority.RECENT_SEASON;
+        }
+        return onDisk ? Priority.REFRESH : Priority.MISSING;
+    }
+
+    public synchronized void submit(TeamDataDownloader.DownloadTask task, Priority priority) {
+        queue.add(new QueuedJob(new Job(task, priority), nextSequence++));
+    }
+
+    /**
+     * Stops starting new jobs and interrupts the running downloads (their results report the
+     * interruption). Results already handed to the completion callback are not interrupted.
+     * Can be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (running) {
+            for (Thread thread : running) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Runs the submitted jobs and waits for the ones that started.
+     *
+     * @param budget     time after which no new job starts (running jobs finish), or null for no limit
+     * @param onComplete called for every result as soon as it is ready, from several threads at once
+     */
+    public Outcome run(Duration budget, Consumer<TeamDataDownloader.DownloadResult> onComplete)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        List<TeamDataDownloader.DownloadResult> results = Collections.synchronizedList(new ArrayList<>());
+        Semaphore slots = new Semaphore(maxInFlight);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (true) {
+                if (cancelled) {
+                    break;
+                }
+                if (budget == null) {
+                    slots.acquire();
+                } else {
+                    // Wait for a free slot, but not past the budget (elapsed time, so nanoTime may wrap)
+                    long remaining = budget.toNanos() - (System.nanoTime() - start);
+                    if (remaining <= 0 || !slots.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                        break;
+                    }
+                }
+                QueuedJob next;
+                synchronized (this) {
+                    next = queue.poll();
+                }
+                if (next == null || cancelled) {
+                    if (next != null) {
+                        synchronized (this) {
+                            queue.add(next);
+                        }
+                    }
+                    slots.release();
+                    break;
+                }
+
+                executor.submit(() -> {
+                    try {
+                        running.add(Thread.currentThread());
+                        TeamDataDownloader.DownloadResult result;
+                        try {
+                            result = runJob(next.job().task());
+                        } finally {
+                            // Only the download can be cancelled: saving a finished page must not be interrupted
+                            synchronized (running) {
+                                running.remove(Thread.currentThread());
+                            }
+                            Thread.interrupted();
+                        }
+                        results.add(result);
+                        onComplete.accept(result);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+
+        List<Job> notStarted = new ArrayList<>();
+        synchronized (this) {
+            while (!queue.isEmpty()) {
+                notStarted.add(queue.poll().job());
+            }
+        }
+        return new Outcome(new ArrayList<>(results), notStarted, cancelled);
+    }
+
+    private TeamDataDownloader.DownloadResult runJob(TeamDataDownloader.DownloadTask task) {
+        if (cancelled) {
+            return new TeamDataDownloader.DownloadResult(task, List.of(), new InterruptedException("cancelled"));
+        }
+        try {
+            return downloader.download(task);
+        } catch (InterruptedException e) {
+            return new TeamDataDownloader.DownloadResult(task, List.of(), e);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package scraper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms of a scraping run, for tuning concurrency and rate limits.
+ * <p>
+ * Records, per request, the network latency (failed requests included), bytes and 304 answers
+ * (through {@link #instrument}), and per page the load time (cache or network, plus HTML parsing),
+ * the squad table parse time and the rows parsed; failures are counted by cause. Recording is
+ * lock-free and safe from many threads. {@link #snapshot()} can be taken at any time, also while the run is in progress,
+ * and exported as CSV or JSON.
+ */
+public class ScraperMetrics {
+
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder pages = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    // Times in microseconds
+    private final Histogram fetchMicros = new Histogram();
+    private final Histogram loadMicros = new Histogram();
+    private final Histogram parseMicros = new Histogram();
+    private final Histogram rowsPerPage = new Histogram();
+
+    /**
+     * Wraps a transport so that every request it sends is recorded.
+     */
+    public PageTransport instrument(PageTransport transport) {
+        return (url, requestHeaders) -> {
+            long start = System.nanoTime();
+            try {
+                PageTransport.Response response = transport.get(url, requestHeaders);
+                bytes.add(response.body().length);
+                if (response.statusCode() == 304) {
+                    notModified.increment();
+                }
+                return response;
+            } finally {
+                // Failed requests too: timeouts and error answers are part of the latency the host shows
+                fetchMicros.record(microsSince(start));
+                requests.increment();
+            }
+        };
+    }
+
+    /**
+     * Records one page that was loaded and parsed.
+     *
+     * @param loadNanos  time to get the page as a document (from the cache or the network)
+     * @param parseNanos time to extract the players from the document
+     * @param rows       players parsed from the page
+     */
+    public void recordPage(long loadNanos, long parseNanos, int rows) {
+        pages.increment();
+        loadMicros.record(TimeUnit.NANOSECONDS.toMicros(loadNanos));
+        parseMicros.record(TimeUnit.NANOSECONDS.toMicros(parseNanos));
+        rowsPerPage.record(rows);
+    }
+
+    /**
+     * Counts a failed page under its cause ("HTTP 404", "HttpTimeoutException", ...).
+     */
+    public void recordFailure(Exception error) {
+        failures.computeIfAbsent(causeOf(error), cause -> new LongAdder()).increment();
+    }
+
+    static String causeOf(Exception error) {
+        if (error instanceof HttpStatusException status) {
+            return "HTTP " + status.statusCode();
+        }
+        return error.getClass().getSimpleName();
+    }
+
+    /**
+     * @return the current values; consistent enough for monitoring while other threads record
+     */
+    public Snapshot snapshot() {
+        Map<String, Long> failureCounts = new TreeMap<>();
+        failures.forEach((cause, count) -> failureCounts.put(cause, count.sum()));
+        return new Snapshot(
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                requests.sum(), notModified.sum(), bytes.sum(), pages.sum(), failureCounts,
+                fetchMicros.snapshot(), loadMicros.snapshot(), parseMicros.snapshot(), rowsPerPage.snapshot());
+    }
+
+    private static long microsSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Count, mean, percentiles and maximum of a histogram. Percentiles are accurate to about 6%.
+     */
+    public record Summary(long count, double mean, long p50, long p90, long p99, long max) {
+    }
+
+    /**
+     * Metric values at one point in time. Times are in microseconds, except {@code elapsedMillis}.
+     */
+    public record Snapshot(long elapsedMillis, long requests, long notModified, long bytes, long pages,
+                           Map<String, Long> failures, Summary fetchMicros, Summary loadMicros,
+                           Summary parseMicros, Summary rowsPerPage) {
+
+        public long failureCount() {
+            return failures.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public double pagesPerSecond() {
+            return elapsedMillis > 0 ? pages * 1000.0 / elapsedMillis : 0;
+        }
+
+        // One line for progress output
+        public String summary() {
+            return String.format(Locale.ROOT,
+                    "%d pages (%.2f/s), %d failed, %d requests (%d not modified), %.1f MB, fetch p50 %.0f ms / p99 %.0f ms, parse p50 %.1f ms",
+                    pages, pagesPerSecond(), failureCount(), requests, notModified, bytes / 1e6,
+                    fetchMicros.p50() / 1000.0, fetchMicros.p99() / 1000.0, parseMicros.p50() / 1000.0);
+        }
+
+        /**
+         * @return "Metric,Value" lines, with a header
+         */
+        public String toCsv() {
+            StringBuilder csv = new StringBuilder("Metric,Value\n");
+            for (Map.Entry<String, Object> value : flatten().entrySet()) {
+                csv.append(value.getKey().contains(",") ? "\"" + value.getKey() + "\"" : value.getKey())
+                        .append(',').append(value.getValue()).append('\n');
+            }
+            return csv.toString();
+        }
+
+        public String toJson() {
+            StringBuilder json = new StringBuilder("{\n");
+            json.append("  \"elapsedMillis\": ").append(elapsedMillis).append(",\n");
+            json.append("  \"pages\": ").append(pages).append(",\n");
+            json.append("  \"pagesPerSecond\": ").append(format(pagesPerSecond())).append(",\n");
+            json.append("  \"requests\": ").append(requests).append(",\n");
+            json.append("  \"notModified\": ").append(notModified).append(",\n");
+            json.append("  \"bytes\": ").append(bytes).append(",\n");
+            json.append("  \"failures\": {");
+            String separator = "";
+            for (Map.Entry<String, Long> failure : failures.entrySet()) {
+                json.append(separator).append("\"").append(failure.getKey().replace("\"", "\\\"")).append("\": ")
+                        .append(failure.getValue());
+                separator = ", ";
+            }
+            json.append("},\n");
+            appendJson(json, "fetchMicros", fetchMicros, ",");
+            appendJson(json, "loadMicros", loadMicros, ",");
+            appendJson(json, "parseMicros", parseMicros, ",");
+            appendJson(json, "rowsPerPage", rowsPerPage, "");
+            return json.append("}\n").toString();
+        }
+
+        /**
+         * Writes {@code <base>.csv} and {@code <base>.json} (each to a temporary file first, then renamed).
+         */
+        public void write(Path base) throws IOException {
+            if (base.getParent() != null) {
+                Files.createDirectories(base.getParent());
+            }
+            writeAtomically(base.resolveSibling(base.getFileName() + ".csv"), toCsv());
+            writeAtomically(base.resolveSibling(base.getFileName() + ".json"), toJson());
+        }
+
+        private Map<String, Object> flatten() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("elapsedMillis", elapsedMillis);
+            values.put("pages", pages);
+            values.put("pagesPerSecond", format(pagesPerSecond()));
+            values.put("requests", requests);
+            values.put("notModified", notModified);
+            values.put("bytes", bytes);
+            values.put("failures", failureCount());
+            failures.forEach((cause, count) -> values.put("failures." + cause, count));
+            flatten(values, "fetchMicros", fetchMicros);
+            flatten(values, "loadMicros", loadMicros);
+            flatten(values, "parseMicros", parseMicros);
+            flatten(values, "rowsPerPage", rowsPerPage);
+            return values;
+        }
+
+        private static void flatten(Map<String, Object> values, String name, Summary summary) {
+            values.put(name + ".count", summary.count());
+            values.put(name + ".mean", format(summary.mean()));
+            values.put(name + ".p50", summary.p50());
+            values.put(name + ".p90", summary.p90());
+            values.put(name + ".p99", summary.p99());
+            values.put(name + ".max", summary.max());
+        }
+
+        private static void appendJson(StringBuilder json, String name, Summary summary, String separator) {
+            json.append("  \"").append(name).append("\": {\"count\": ").append(summary.count())
+                    .append(", \"mean\": ").append(format(summary.mean()))
+                    .append(", \"p50\": ").append(summary.p50())
+                    .append(", \"p90\": ").append(summary.p90())
+                    .append(", \"p99\": ").append(summary.p99())
+                    .append(", \"max\": ").append(summary.max())
+                    .append("}").append(separator).append("\n");
+        }
+
+        private static String format(double value) {
+            return String.format(Locale.ROOT, "%.3f", value);
+        }
+
+        private static void writeAtomically(Path file, String content) throws IOException {
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tempFile, content, StandardCharsets.UTF_8);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /*
+     * Histogram of non-negative values with log-linear buckets: values below 16 are counted
+     * exactly, larger ones in 16 buckets per power of two (bucket width at most 1/16 of the value).
+     */
+    static final class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long value) {
+            value = Math.max(0, value);
+            counts.incrementAndGet(bucketOf(value));
+            total.add(value);
+            max.accumulate(value);
+        }
+
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        // Largest value that falls into a bucket
+        static long highestValueIn(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long subBucket = bucket % SUB_BUCKETS;
+            return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+
+        Summary snapshot() {
+            long[] snapshot = new long[counts.length()];
+            long count = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = counts.get(i);
+                count += snapshot[i];
+            }
+            long maxValue = max.get();
+            double mean = count > 0 ? (double) total.sum() / count : 0;
+            return new Summary(count, mean,
+                    percentile(snapshot, count, 0.50, maxValue),
+                    percentile(snapshot, count, 0.90, maxValue),
+                    percentile(snapshot, count, 0.99, maxValue),
+                    maxValue);
+        }
+
+        private static long percentile(long[] snapshot, long count, double fraction, long maxValue) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueIn(i), maxValue);
+                }
+            }
+            return maxValue;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package scraper;
+
+import model.Player;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+
+/**
+ * Downloads many team-season roster pages concurrently.
+ * <p>
+ * Every request runs on its own virtual thread. Per host (the URL's
+ * {@code host:port}), a semaphore caps the number of requests in flight and a
+ * {@link TokenBucket} caps the request rate, so fanning out does not hammer one server.
+ * The order in which tasks run is left to the caller, see {@link ScrapeScheduler}.
+ */
+public class TeamDataDownloader {
+
+    /**
+     * Fetches and parses one roster page. The default is {@link PlayerScraper#parsePlayers(String)};
+     * another fetcher (e.g. through a page cache, or against a local stub server) can be passed in.
+     */
+    @FunctionalInterface
+    public interface Fetcher {
+        List<Player> fetch(DownloadTask task) throws IOException;
+    }
+
+    /**
+     * One page to download.
+     */
+    public record DownloadTask(String team, int season, String url) {
+    }
+
+    /**
+     * Outcome of one task: the players, or the error that prevented the download.
+     */
+    public record DownloadResult(DownloadTask task, List<Player> players, Exception error) {
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    private final Fetcher fetcher;
+    private final int maxConcurrentPerHost;
+    private final double requestsPerSecondPerHost;
+    private final int burstPerHost;
+
+    // Tasks the fetcher serves without network access (e.g. from a cache); they skip the host limits
+    private Predicate<DownloadTask> servedLocally = task -> false;
+
+    // Host -> limits, created on first use
+    private final Map<String, Semaphore> hostSlots = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> hostRates = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxConcurrentPerHost     maximum requests in flight per host
+     * @param requestsPerSecondPerHost sustained request rate per host
+     * @param burstPerHost             requests allowed at once before the rate applies
+     */
+    public TeamDataDownloader(int maxConcurrentPerHost, double requestsPerSecondPerHost, int burstPerHost) {
+        this(task -> PlayerScraper.parsePlayers(task.url()), maxConcurrentPerHost, requestsPerSecondPerHost, burstPerHost);
+    }
+
+    public TeamDataDownloader(Fetcher fetcher, int maxConcurrentPerHost,
+                              double requestsPerSecondPerHost, int burstPerHost) {
+        if (maxConcurrentPerHost < 1) {
+            throw new IllegalArgumentException("maxConcurrentPerHost must be at least 1");
+        }
+        this.fetcher = fetcher;
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+        this.requestsPerSecondPerHost = requestsPerSecondPerHost;
+        this.burstPerHost = burstPerHost;
+    }
+
+    /**
+     * Marks tasks that the fetcher can answer without a request, so they neither wait for
+     * nor use up the per-host concurrency and rate limits.
+     */
+    public void setServedLocally(Predicate<DownloadTask> servedLocally) {
+        this.servedLocally = servedLocally;
+    }
+
+    /**
+     * Downloads one task on the calling thread, within the per-host limits.
+     *
+     * @return the result; download errors are returned in it, not thrown
+     */
+    public DownloadResult download(DownloadTask task) throws InterruptedException {
+        if (servedLocally.test(task)) {
+            try {
+                return new DownloadResult(task, fetcher.fetch(task), null);
+            } catch (IOException | RuntimeException e) {
+                return new DownloadResult(task, List.of(), e);
+            }
+        }
+
+        String host = hostOf(task.url());
+        Semaphore slots = hostSlots.computeIfAbsent(host, h -> new Semaphore(maxConcurrentPerHost));
+        TokenBucket rate = hostRates.computeIfAbsent(host,
+                h -> new TokenBucket(requestsPerSecondPerHost, burstPerHost));
+
+        slots.acquire();
+        try {
+            rate.acquire();
+            return new DownloadResult(task, fetcher.fetch(task), null);
+        } catch (IOException | RuntimeException e) {
+            return new DownloadResult(task, List.of(), e);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String authority = URI.create(url).getAuthority();
+            return authority != null ? authority.toLowerCase() : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}